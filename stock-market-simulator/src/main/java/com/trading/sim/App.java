@@ -3,6 +3,7 @@ package com.trading.sim;
 import com.trading.sim.market.Market;
 import com.trading.sim.model.Company;
 import com.trading.sim.trader.AccountingTrader;
+import com.trading.sim.trader.MarketMaker;
 import com.trading.sim.trader.strategies.MeanReversionStrategy;
 import com.trading.sim.trader.strategies.RandomStrategy;
 
@@ -19,6 +20,7 @@ public class App {
             market.listCompany(new Company("Nimbus Cloud", "NIMB", 55.50, 0.30));
             market.listCompany(new Company("Solaris Energy", "SOLR", 22.15, 0.40));
             market.start();
+            MarketMaker mm = new MarketMaker("MM-001", market, 1_000_000, 3, 50, 0.001, 0.0005).attach();
 
             ExecutorService pool = Executors.newFixedThreadPool(6);
             AccountingTrader t1 = new AccountingTrader("T-001", new RandomStrategy(),        market, new Random(rng.nextLong()), 100_000);
@@ -33,6 +35,8 @@ public class App {
             t1.stop(); t2.stop(); t3.stop(); t4.stop();
             pool.shutdownNow();
             pool.awaitTermination(2, TimeUnit.SECONDS);
+            System.out.printf("[MM %s] Cash=%.2f Positions=%s RejectedQuotes=%d%n",
+                    mm.getId(), mm.getAccount().getCash(), mm.getAccount().positionsSnapshot(), mm.getRejectedQuotes());
         }
         System.out.println("Simulation finished.");
     }
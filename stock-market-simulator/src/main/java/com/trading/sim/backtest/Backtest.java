@@ -0,0 +1,321 @@
+package com.trading.sim.backtest;
+
+import com.trading.sim.indicators.IndicatorEngine;
+import com.trading.sim.trader.Strategy;
+import com.trading.sim.trader.strategies.MeanReversionStrategy;
+import com.trading.sim.trader.strategies.RandomStrategy;
+import com.trading.sim.trader.strategies.ZScoreStrategy;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.function.Function;
+
+/**
+ * Streaming backtest: replays a recorded tick file once and drives every configured run from it.
+ *
+ * A reader thread decodes the memory-mapped file into two alternating {@link TickBatch}es, so decoding
+ * the next batch overlaps with replaying the current one. Runs (the cross product of strategies, latencies
+ * and queue models) are split into contiguous groups, one per worker thread; every worker replays the same
+ * batch, so a sweep of N configurations costs one pass over the file. Runs on a worker share that worker's
+ * {@link IndicatorEngine}, fed with each tick's reference price.
+ *
+ * Usage: --file ticks.bin --strategies random,meanrev,zscore:50:1.5,zscore:20:2 --latency-ms 0,5
+ *        --queue back,front --interval-ms 1000 [--order-ttl-ms 60000] [--threads 4] [--seed 42]
+ * Synthetic tape: --generate 1000000 --symbols 20 --file ticks.bin (or .csv)
+ */
+public class Backtest {
+    private static final int BATCH = 8192;
+
+    public static void main(String[] args) throws Exception {
+        Config cfg = Config.parse(args);
+        if (cfg.generate > 0) {
+            generate(cfg.file, cfg.generate, cfg.symbols, cfg.seed);
+            System.out.printf("[BACKTEST] wrote %,d ticks to %s%n", cfg.generate, cfg.file);
+            return;
+        }
+        new Backtest().run(cfg);
+    }
+
+    public void run(Config cfg) throws IOException, InterruptedException {
+        List<RunSpec> specs = cfg.runs();
+        int threads = Math.min(cfg.threads, specs.size());
+        Worker[] workers = new Worker[threads];
+        List<BacktestRun> runs = new ArrayList<>();
+        for (int w = 0; w < threads; w++) {
+            workers[w] = new Worker(cfg, specs.subList(w * specs.size() / threads, (w + 1) * specs.size() / threads));
+            runs.addAll(workers[w].runs);
+        }
+
+        long start = System.nanoTime();
+        long ticks = replay(cfg.file, workers);
+        double secs = Math.max(1, System.nanoTime() - start) / 1e9;
+
+        for (Worker w : workers) {
+            if (w.failure != null) throw new IllegalStateException("Backtest worker failed", w.failure);
+            for (BacktestRun r : w.runs) r.sampleEquity(w.lastPrice);
+        }
+        report(cfg, runs, workers, ticks, secs);
+    }
+
+    /** Streams the file through the workers; returns the number of ticks replayed. */
+    private long replay(Path file, Worker[] workers) throws IOException, InterruptedException {
+        TickBatch[] buffers = { new TickBatch(BATCH), new TickBatch(BATCH) };
+        CyclicBarrier ready = new CyclicBarrier(workers.length + 1);
+        CyclicBarrier done = new CyclicBarrier(workers.length + 1);
+        Thread[] threads = new Thread[workers.length];
+        for (int w = 0; w < workers.length; w++) {
+            Worker worker = workers[w];
+            threads[w] = new Thread(() -> worker.loop(ready, done), "backtest-" + w);
+            threads[w].setDaemon(true);
+            threads[w].start();
+        }
+
+        long ticks = 0;
+        try (TickReader reader = TickReader.open(file)) {
+            int cur = 0;
+            int n = reader.read(buffers[cur]);
+            while (n > 0) {
+                for (Worker w : workers) w.batch = buffers[cur];
+                await(ready);                      // workers start on the current batch...
+                ticks += n;
+                try {
+                    n = reader.read(buffers[cur ^ 1]); // ...while the next one is decoded
+                } finally {
+                    await(done);
+                }
+                cur ^= 1;
+            }
+        } finally {
+            for (Worker w : workers) w.batch = null;
+            await(ready); // a null batch tells the workers to stop
+            for (Thread t : threads) t.join();
+        }
+        return ticks;
+    }
+
+    private static void await(CyclicBarrier barrier) throws InterruptedException {
+        try {
+            barrier.await();
+        } catch (BrokenBarrierException e) {
+            throw new IllegalStateException("Backtest worker stopped", e);
+        }
+    }
+
+    private void report(Config cfg, List<BacktestRun> runs, Worker[] workers, long ticks, double secs) {
+        List<BacktestRun> ranked = new ArrayList<>(runs);
+        Function<String, Double> marks = workers[0].lastPrice;
+        ranked.sort(Comparator.comparingDouble((BacktestRun r) -> r.account().unrealizedPnL(marks)).reversed());
+
+        System.out.println("=== Backtest report ===");
+        System.out.printf("File=%s Ticks=%,d Runs=%d Threads=%d Elapsed=%.2fs (%,.0f ticks/s, %,.0f run-ticks/s)%n",
+                cfg.file, ticks, runs.size(), workers.length, secs, ticks / secs, ticks * runs.size() / secs);
+        System.out.printf("%-32s %9s %9s %11s %8s %7s %14s %12s%n",
+                "Run", "Orders", "Fills", "Filled qty", "Rejects", "Open", "P&L", "Max DD");
+        for (BacktestRun r : ranked) {
+            SimulatedVenue v = r.venue();
+            System.out.printf("%-32s %,9d %,9d %,11d %,8d %,7d %,14.2f %,12.2f%n",
+                    r.name(), v.orders(), v.fills(), v.filledQuantity(), v.rejected() + r.errors(), v.openOrders(),
+                    r.account().unrealizedPnL(marks), r.maxDrawdown());
+        }
+    }
+
+    /**
+     * One replay thread: owns a contiguous group of runs and their shared indicators, and the last
+     * reference price per symbol as seen on the tape.
+     */
+    private static final class Worker {
+        private final List<BacktestRun> runs = new ArrayList<>();
+        private final IndicatorEngine indicators = new IndicatorEngine();
+        private final Map<String, Integer> index = new HashMap<>();
+        private double[] prices = new double[0];
+        private List<String> priced = List.of(); // symbols with a price so far, handed to strategies
+        final Function<String, Double> lastPrice = this::price;
+        volatile TickBatch batch;
+        volatile Throwable failure;
+
+        Worker(Config cfg, List<RunSpec> specs) {
+            for (RunSpec spec : specs) {
+                runs.add(new BacktestRun(spec.name, newStrategy(spec.strategy, indicators), new Random(spec.seed),
+                        cfg.intervalMillis, cfg.cash, spec.latencyMillis, cfg.orderTtlMillis, spec.queueModel));
+            }
+        }
+
+        void loop(CyclicBarrier ready, CyclicBarrier done) {
+            try {
+                while (true) {
+                    ready.await();
+                    TickBatch b = batch;
+                    if (b == null) return;
+                    try {
+                        replay(b);
+                    } catch (RuntimeException | Error e) {
+                        if (failure == null) failure = e; // keep the barriers turning; reported at the end
+                    }
+                    done.await();
+                }
+            } catch (InterruptedException | BrokenBarrierException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void replay(TickBatch b) {
+            if (failure != null) return;
+            for (int i = 0; i < b.size; i++) {
+                String sym = b.symbol(i);
+                double ref = b.referencePrice(i);
+                if (!Double.isNaN(ref)) {
+                    setPrice(sym, b.symbol[i], ref);
+                    indicators.onPrice(sym, ref);
+                }
+                for (BacktestRun r : runs) r.onTick(b, i, priced, lastPrice);
+            }
+        }
+
+        private void setPrice(String sym, int idx, double px) {
+            if (idx >= prices.length) prices = Arrays.copyOf(prices, Math.max(idx + 1, prices.length * 2));
+            if (index.putIfAbsent(sym, idx) == null) {
+                List<String> next = new ArrayList<>(priced);
+                next.add(sym);
+                priced = List.copyOf(next);
+            }
+            prices[idx] = px;
+        }
+
+        private Double price(String sym) {
+            Integer idx = index.get(sym);
+            return idx == null ? Double.NaN : prices[idx];
+        }
+    }
+
+    /** {@code random}, {@code meanrev} or {@code zscore:window:entry}. */
+    static Strategy newStrategy(String spec, IndicatorEngine indicators) {
+        String[] p = spec.split(":");
+        switch (p[0]) {
+            case "random": return new RandomStrategy();
+            case "meanrev": return new MeanReversionStrategy();
+            case "zscore":
+                return new ZScoreStrategy(indicators, p.length > 1 ? Integer.parseInt(p[1]) : 50,
+                        p.length > 2 ? Double.parseDouble(p[2]) : 1.5);
+            default: throw new IllegalArgumentException("Unknown strategy: " + spec);
+        }
+    }
+
+    /** One point of the parameter sweep. */
+    private static final class RunSpec {
+        final String name;
+        final String strategy;
+        final long latencyMillis;
+        final SimulatedVenue.QueueModel queueModel;
+        final long seed;
+
+        RunSpec(String name, String strategy, long latencyMillis, SimulatedVenue.QueueModel queueModel, long seed) {
+            this.name = name;
+            this.strategy = strategy;
+            this.latencyMillis = latencyMillis;
+            this.queueModel = queueModel;
+            this.seed = seed;
+        }
+    }
+
+    /** Writes a random-walk top-of-book tape: a quote per tick and a trade print on about a third of them. */
+    static void generate(Path file, long ticks, int symbols, long seed) throws IOException {
+        Random rng = new Random(seed);
+        double[] mid = new double[symbols];
+        for (int s = 0; s < symbols; s++) mid[s] = Math.round((10 + rng.nextDouble() * 190) * 100) / 100.0;
+        long ts = 1_700_000_000_000L;
+        boolean csv = file.getFileName().toString().endsWith(".csv");
+        try (BufferedWriter text = csv ? Files.newBufferedWriter(file) : null;
+             TickFileWriter bin = csv ? null : new TickFileWriter(file)) {
+            if (csv) text.write("# timestamp,symbol,T,price,qty | timestamp,symbol,Q,bidPrice,bidQty,askPrice,askQty\n");
+            for (long n = 0; n < ticks; ) {
+                ts += rng.nextInt(20);
+                int s = rng.nextInt(symbols);
+                String sym = String.format("S%04d", s);
+                mid[s] = Math.max(0.05, Math.round((mid[s] + rng.nextGaussian() * 0.02) * 100) / 100.0);
+                double bid = Math.round((mid[s] - 0.01) * 100) / 100.0, ask = Math.round((mid[s] + 0.01) * 100) / 100.0;
+                long bidQty = 100 + rng.nextInt(900), askQty = 100 + rng.nextInt(900);
+                if (csv) text.write(ts + "," + sym + ",Q," + bid + "," + bidQty + "," + ask + "," + askQty + "\n");
+                else bin.quote(ts, sym, bid, bidQty, ask, askQty);
+                n++;
+                if (n < ticks && rng.nextInt(3) == 0) {
+                    double px = rng.nextBoolean() ? bid : ask;
+                    long qty = 1 + rng.nextInt(200);
+                    if (csv) text.write(ts + "," + sym + ",T," + px + "," + qty + "\n");
+                    else bin.trade(ts, sym, px, qty);
+                    n++;
+                }
+            }
+        }
+    }
+
+    /** Command-line options. */
+    public static final class Config {
+        Path file;
+        String strategies = "random,meanrev,zscore:50:1.5";
+        String latencies = "0";
+        String queues = "back";
+        long intervalMillis = 1000;
+        long orderTtlMillis = 0;
+        double cash = 1_000_000;
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        long seed = 42;
+        long generate;
+        int symbols = 20;
+
+        public static Config parse(String[] args) {
+            Config c = new Config();
+            for (int i = 0; i < args.length; i++) {
+                String key = args[i];
+                if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + key);
+                String val = args[++i];
+                switch (key) {
+                    case "--file": c.file = Paths.get(val); break;
+                    case "--strategies": c.strategies = val; break;
+                    case "--latency-ms": c.latencies = val; break;
+                    case "--queue": c.queues = val; break;
+                    case "--interval-ms": c.intervalMillis = Long.parseLong(val); break;
+                    case "--order-ttl-ms": c.orderTtlMillis = Long.parseLong(val); break;
+                    case "--cash": c.cash = Double.parseDouble(val); break;
+                    case "--threads": c.threads = Integer.parseInt(val); break;
+                    case "--seed": c.seed = Long.parseLong(val); break;
+                    case "--generate": c.generate = Long.parseLong(val); break;
+                    case "--symbols": c.symbols = Integer.parseInt(val); break;
+                    default: throw new IllegalArgumentException("Unknown option: " + key);
+                }
+            }
+            if (c.file == null) throw new IllegalArgumentException("--file is required");
+            if (c.threads <= 0 || c.intervalMillis <= 0 || c.symbols <= 0) {
+                throw new IllegalArgumentException("threads, interval and symbols must be positive");
+            }
+            if (c.orderTtlMillis < 0) {
+                throw new IllegalArgumentException("order TTL must not be negative: " + c.orderTtlMillis);
+            }
+            return c;
+        }
+
+        /** One run per (strategy, latency, queue model); strategy-major, so identical signals share a worker. */
+        List<RunSpec> runs() {
+            Random rng = new Random(seed);
+            List<RunSpec> out = new ArrayList<>();
+            for (String spec : strategies.split(",")) {
+                for (String latency : latencies.split(",")) {
+                    for (String queue : queues.split(",")) {
+                        SimulatedVenue.QueueModel model = SimulatedVenue.QueueModel.valueOf(queue.trim().toUpperCase(Locale.ROOT));
+                        long latencyMillis = Long.parseLong(latency.trim());
+                        if (latencyMillis < 0) throw new IllegalArgumentException("Invalid latency: " + latencyMillis);
+                        String name = spec.trim() + "/" + latencyMillis + "ms/" + model.name().toLowerCase(Locale.ROOT);
+                        newStrategy(spec.trim(), null); // validates the spec up front
+                        out.add(new RunSpec(name, spec.trim(), latencyMillis, model, rng.nextLong()));
+                    }
+                }
+            }
+            return out;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.trading.sim.backtest;
+
+import com.trading.sim.order.Order;
+import com.trading.sim.trader.Account;
+import com.trading.sim.trader.Strategy;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * One strategy configuration replayed against the tape: its own account, simulated venue and decision
+ * clock. The strategy is asked for orders every {@code intervalMillis} of tape time; equity is sampled
+ * at each decision for the drawdown.
+ */
+public class BacktestRun {
+    private final String name;
+    private final Strategy strategy;
+    private final Random rng;
+    private final long intervalMillis;
+    private final Account account;
+    private final SimulatedVenue venue;
+    private long nextDecision = Long.MIN_VALUE;
+    private double peakEquity = Double.NEGATIVE_INFINITY;
+    private double maxDrawdown;
+    private long decisions, errors;
+
+    public BacktestRun(String name, Strategy strategy, Random rng, long intervalMillis, double startingCash,
+                       long latencyMillis, long orderTtlMillis, SimulatedVenue.QueueModel queueModel) {
+        this.name = name;
+        this.strategy = strategy;
+        this.rng = rng;
+        this.intervalMillis = intervalMillis;
+        this.account = new Account(startingCash);
+        this.venue = new SimulatedVenue(name, account, latencyMillis, orderTtlMillis, queueModel);
+    }
+
+    public String name() { return name; }
+    public Account account() { return account; }
+    public SimulatedVenue venue() { return venue; }
+    public double maxDrawdown() { return maxDrawdown; }
+    public long decisions() { return decisions; }
+    public long errors() { return errors; }
+
+    /** Applies tick {@code i} to the venue, then lets the strategy act if its next decision is due. */
+    void onTick(TickBatch b, int i, List<String> symbols, Function<String, Double> lastPrice) {
+        venue.onTick(b, i);
+        long now = b.timestamp[i];
+        if (nextDecision == Long.MIN_VALUE) nextDecision = now + intervalMillis; // first interval warms up
+        if (now < nextDecision || symbols.isEmpty()) return;
+        nextDecision = now + intervalMillis;
+        decisions++;
+        try {
+            for (Order o : strategy.generate(name, symbols, lastPrice, rng)) venue.send(o, now);
+        } catch (RuntimeException e) {
+            errors++;
+        }
+        sampleEquity(lastPrice);
+    }
+
+    void sampleEquity(Function<String, Double> lastPrice) {
+        double equity = account.netLiq(lastPrice);
+        peakEquity = Math.max(peakEquity, equity);
+        maxDrawdown = Math.max(maxDrawdown, peakEquity - equity);
+    }
+}
@@ -0,0 +1,52 @@
+package com.trading.sim.backtest;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.trading.sim.backtest.TickFileWriter.*;
+
+/** Reads the binary tick format written by {@link TickFileWriter} from a sliding memory map. */
+public class BinaryTickReader implements TickReader {
+    private final MappedWindow in;
+    private final List<String> names = new ArrayList<>();
+    private List<String> namesSnapshot = List.of();
+
+    public BinaryTickReader(Path file) throws IOException {
+        this.in = new MappedWindow(file);
+        if (!in.ensure(HEADER_LEN) || in.buf.getInt() != MAGIC) throw new IOException("Not a tick file: " + file);
+        short version = in.buf.getShort();
+        if (version != VERSION) throw new IOException("Unsupported tick file version: " + version);
+    }
+
+    @Override public int read(TickBatch batch) throws IOException {
+        batch.clear();
+        while (!batch.isFull() && in.ensure(MAX_RECORD)) {
+            MappedByteBuffer b = in.buf;
+            byte type = b.get();
+            switch (type) {
+                case TickBatch.TRADE:
+                    batch.addTrade(b.getLong(), b.getInt(), b.getDouble(), b.getLong());
+                    break;
+                case TickBatch.QUOTE:
+                    batch.addQuote(b.getLong(), b.getInt(), b.getDouble(), b.getLong(), b.getDouble(), b.getLong());
+                    break;
+                case SYMBOL:
+                    byte[] name = new byte[b.getShort()];
+                    b.get(name);
+                    names.add(new String(name, StandardCharsets.UTF_8));
+                    namesSnapshot = List.copyOf(names);
+                    break;
+                default:
+                    throw new IOException("Corrupt tick file: record type " + type);
+            }
+        }
+        batch.symbols = namesSnapshot;
+        return batch.size;
+    }
+
+    @Override public void close() throws IOException { in.close(); }
+}
@@ -0,0 +1,161 @@
+package com.trading.sim.backtest;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads tick CSV straight from the memory map, without building a String per line:
+ * <pre>
+ * timestampMillis,symbol,T,price,qty
+ * timestampMillis,symbol,Q,bidPrice,bidQty,askPrice,askQty
+ * </pre>
+ * Lines starting with '#' and a header line starting with a letter are skipped. Symbols are matched
+ * byte-wise against a small open-addressing table, so only a new symbol allocates.
+ */
+public class CsvTickReader implements TickReader {
+    private static final int MAX_LINE = 512;
+
+    private final MappedWindow in;
+    private final List<String> names = new ArrayList<>();
+    private List<String> namesSnapshot = List.of();
+    private byte[][] table = new byte[64][];
+    private int[] tableIndex = new int[64];
+    private long line;
+
+    public CsvTickReader(Path file) throws IOException { this.in = new MappedWindow(file); }
+
+    @Override public int read(TickBatch batch) throws IOException {
+        batch.clear();
+        while (!batch.isFull() && in.ensure(MAX_LINE)) {
+            MappedByteBuffer b = in.buf;
+            line++;
+            byte first = b.get(b.position());
+            if (first == '#' || first == '\n' || first == '\r' || Character.isLetter(first)) {
+                skipLine(b);
+                continue;
+            }
+            long ts = (long) parseNumber(b);
+            int sym = symbol(b);
+            byte type = b.get();
+            expect(b, ',');
+            double p1 = parseNumber(b);
+            long q1 = (long) parseNumber(b);
+            if (type == TickBatch.TRADE) {
+                batch.addTrade(ts, sym, p1, q1);
+            } else if (type == TickBatch.QUOTE) {
+                double p2 = parseNumber(b);
+                long q2 = (long) parseNumber(b);
+                batch.addQuote(ts, sym, p1, q1, p2, q2);
+            } else {
+                throw new IOException("Unknown tick type '" + (char) type + "' on line " + line);
+            }
+            skipLine(b);
+        }
+        batch.symbols = namesSnapshot;
+        return batch.size;
+    }
+
+    /** Parses a plain decimal field and consumes its trailing comma; exotic forms fall back to Double.parseDouble. */
+    private double parseNumber(MappedByteBuffer b) throws IOException {
+        int start = b.position();
+        boolean neg = false, plain = true;
+        long digits = 0;
+        int scale = -1, count = 0;
+        while (b.hasRemaining()) {
+            byte c = b.get(b.position());
+            if (c == ',' || c == '\n' || c == '\r') break;
+            b.position(b.position() + 1);
+            if (c >= '0' && c <= '9') {
+                digits = digits * 10 + (c - '0');
+                if (scale >= 0) scale++;
+                if (++count > 17) plain = false;
+            } else if (c == '.' && scale < 0) {
+                scale = 0;
+            } else if (c == '-' && b.position() - 1 == start) {
+                neg = true;
+            } else {
+                plain = false;
+            }
+        }
+        int end = b.position();
+        if (b.hasRemaining() && b.get(end) == ',') b.position(end + 1);
+        if (end == start) throw new IOException("Empty field on line " + line);
+        if (!plain) {
+            byte[] raw = new byte[end - start];
+            b.get(start, raw);
+            return Double.parseDouble(new String(raw, StandardCharsets.US_ASCII));
+        }
+        double v = scale > 0 ? digits / POW10[scale] : digits;
+        return neg ? -v : v;
+    }
+
+    private static final double[] POW10 = new double[19];
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) POW10[i] = POW10[i - 1] * 10;
+    }
+
+    private int symbol(MappedByteBuffer b) throws IOException {
+        int start = b.position();
+        int hash = 0;
+        while (b.hasRemaining() && b.get(b.position()) != ',') {
+            hash = 31 * hash + b.get();
+        }
+        int len = b.position() - start;
+        expect(b, ',');
+        int mask = table.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            byte[] name = table[slot];
+            if (name == null) return addSymbol(b, start, len, slot);
+            if (name.length == len && matches(b, start, name)) return tableIndex[slot];
+        }
+    }
+
+    private static boolean matches(MappedByteBuffer b, int start, byte[] name) {
+        for (int i = 0; i < name.length; i++) if (b.get(start + i) != name[i]) return false;
+        return true;
+    }
+
+    private int addSymbol(MappedByteBuffer b, int start, int len, int slot) {
+        byte[] name = new byte[len];
+        b.get(start, name);
+        int index = names.size();
+        names.add(new String(name, StandardCharsets.UTF_8));
+        namesSnapshot = List.copyOf(names);
+        table[slot] = name;
+        tableIndex[slot] = index;
+        if (names.size() * 2 > table.length) rehash();
+        return index;
+    }
+
+    private void rehash() {
+        byte[][] old = table;
+        int[] oldIndex = tableIndex;
+        table = new byte[old.length * 2][];
+        tableIndex = new int[table.length];
+        int mask = table.length - 1;
+        for (int i = 0; i < old.length; i++) {
+            if (old[i] == null) continue;
+            int hash = 0;
+            for (byte c : old[i]) hash = 31 * hash + c;
+            int slot = hash & mask;
+            while (table[slot] != null) slot = (slot + 1) & mask;
+            table[slot] = old[i];
+            tableIndex[slot] = oldIndex[i];
+        }
+    }
+
+    private void expect(MappedByteBuffer b, char c) throws IOException {
+        if (!b.hasRemaining() || b.get() != c) throw new IOException("Malformed tick on line " + line + ": expected '" + c + "'");
+    }
+
+    private static void skipLine(MappedByteBuffer b) {
+        while (b.hasRemaining() && b.get() != '\n') { }
+    }
+
+    @Override public void close() throws IOException { in.close(); }
+}
@@ -0,0 +1,41 @@
+package com.trading.sim.backtest;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Sliding read-only memory map over a file of any size: a window of up to 256 MB is mapped at a time
+ * and re-mapped from the current position when a caller needs more contiguous bytes than are left.
+ */
+final class MappedWindow implements AutoCloseable {
+    private static final long WINDOW = 256L << 20;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private long base;
+    MappedByteBuffer buf;
+
+    MappedWindow(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        map(0);
+    }
+
+    /** Makes at least {@code n} bytes readable from {@link #buf} unless the file ends first; false at end of file. */
+    boolean ensure(int n) throws IOException {
+        if (buf.remaining() >= n) return true;
+        long pos = base + buf.position();
+        if (base + buf.limit() < fileSize) map(pos);
+        return buf.hasRemaining();
+    }
+
+    private void map(long pos) throws IOException {
+        base = pos;
+        buf = channel.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(WINDOW, fileSize - pos));
+    }
+
+    @Override public void close() throws IOException { channel.close(); }
+}
@@ -0,0 +1,271 @@
+package com.trading.sim.backtest;
+
+import com.trading.sim.engine.OrderBook;
+import com.trading.sim.engine.PriceLevel;
+import com.trading.sim.engine.TimingWheel;
+import com.trading.sim.order.Order;
+import com.trading.sim.order.OrderType;
+import com.trading.sim.order.Side;
+import com.trading.sim.order.Trade;
+import com.trading.sim.trader.Account;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fills one backtest run's orders against a recorded top-of-book tape.
+ *
+ * The run's own resting orders live in a reconstructed {@link OrderBook} per symbol; the tape supplies
+ * the displayed best bid/ask and trade prints. Orders reach the venue {@code latencyMillis} of tape time
+ * after they are sent. A marketable order takes the displayed size at the touch; the rest of a limit order
+ * rests. A resting order joins the queue behind the displayed size at its price ({@link QueueModel#BACK})
+ * or at its front ({@link QueueModel#FRONT}); prints at its price work the queue down before it fills,
+ * prints or quotes through its price fill it at its limit. A limit remainder resting through the opposite
+ * touch is still taking, so it fills at the displayed touch rather than its limit. Orders behind the touch
+ * have an unknown queue until the touch reaches them. Not thread-safe: one venue per run, driven by one worker.
+ */
+public class SimulatedVenue {
+    /** Where a resting order joins the displayed queue at its price. */
+    public enum QueueModel { FRONT, BACK }
+
+    static final String TAPE = "TAPE";
+    private static final long UNKNOWN = -1;
+    private static final long EXPIRY_TICK_MILLIS = 10;
+
+    private static final class SymbolState {
+        final OrderBook own;
+        double bid = Double.NaN, ask = Double.NaN;
+        long bidQty, askQty;
+        int resting; // own orders in the book
+
+        SymbolState(String symbol) { this.own = new OrderBook(symbol); }
+    }
+
+    private static final class Pending {
+        final Order order;
+        final long arriveAt;
+
+        Pending(Order order, long arriveAt) { this.order = order; this.arriveAt = arriveAt; }
+    }
+
+    private final String traderId;
+    private final Account account;
+    private final long latencyMillis;
+    private final long orderTtlMillis;
+    private final QueueModel queueModel;
+    private final Map<String, SymbolState> symbols = new HashMap<>();
+    private SymbolState[] byIndex = new SymbolState[16]; // by the tape's symbol index
+    private final Map<Long, long[]> queueAhead = new HashMap<>(); // resting order id -> {qty ahead, or UNKNOWN}
+    private final ArrayDeque<Pending> inFlight = new ArrayDeque<>();
+    private final List<Order> scratch = new ArrayList<>();
+    private TimingWheel expiries;
+    private long orders, fills, filledQty, rejected;
+
+    /** @param orderTtlMillis tape time a resting order lives before it is pulled, 0 for good-till-end */
+    public SimulatedVenue(String traderId, Account account, long latencyMillis, long orderTtlMillis, QueueModel queueModel) {
+        this.traderId = traderId;
+        this.account = account;
+        this.latencyMillis = latencyMillis;
+        this.orderTtlMillis = orderTtlMillis;
+        this.queueModel = queueModel;
+    }
+
+    public long orders() { return orders; }
+    public long fills() { return fills; }
+    public long filledQuantity() { return filledQty; }
+    public long rejected() { return rejected; }
+
+    public int openOrders() { return queueAhead.size(); }
+
+    /** Sends an order at tape time {@code now}; it reaches the venue after the configured latency. */
+    public void send(Order o, long now) {
+        orders++;
+        if (o.isStop() || !traderId.equals(o.getTraderId())) {
+            rejected++;
+            return;
+        }
+        inFlight.add(new Pending(o, now + latencyMillis));
+    }
+
+    /** Delivers every order due by {@code now}, then applies tick {@code i} of the batch. */
+    void onTick(TickBatch b, int i) {
+        long now = b.timestamp[i];
+        while (!inFlight.isEmpty() && inFlight.peek().arriveAt <= now) arrive(inFlight.poll().order, now);
+        if (expiries != null) expiries.advance(now, this::expire);
+
+        int idx = b.symbol[i];
+        if (idx >= byIndex.length) byIndex = Arrays.copyOf(byIndex, Math.max(idx + 1, byIndex.length * 2));
+        SymbolState s = byIndex[idx];
+        if (s == null) s = byIndex[idx] = state(b.symbol(i));
+        if (b.type[i] == TickBatch.TRADE) {
+            onPrint(s, b.price[i], b.qty[i]);
+        } else {
+            double prevBid = s.bid, prevAsk = s.ask;
+            s.bid = b.qty[i] > 0 ? b.price[i] : Double.NaN;
+            s.bidQty = b.qty[i];
+            s.ask = b.askQty[i] > 0 ? b.askPrice[i] : Double.NaN;
+            s.askQty = b.askQty[i];
+            onQuote(s, prevBid, prevAsk);
+        }
+    }
+
+    private SymbolState state(String symbol) {
+        SymbolState s = symbols.get(symbol);
+        if (s == null) symbols.put(symbol, s = new SymbolState(symbol));
+        return s;
+    }
+
+    private void arrive(Order o, long now) {
+        SymbolState s = state(o.getSymbol());
+        boolean buy = o.getSide() == Side.BUY;
+        double touch = buy ? s.ask : s.bid;
+        long leaves = o.getQuantity();
+        if (!Double.isNaN(touch) && (o.getType() == OrderType.MARKET || (buy ? o.getLimitPrice() >= touch : o.getLimitPrice() <= touch))) {
+            long qty = Math.min(leaves, buy ? s.askQty : s.bidQty);
+            fill(o, qty, touch);
+            leaves -= qty;
+            if (buy) s.askQty -= qty; else s.bidQty -= qty; // consumed until the next quote refreshes it
+        }
+        if (leaves == 0) return;
+        if (o.getType() == OrderType.MARKET) { // no displayed liquidity left: the remainder is cancelled
+            if (leaves == o.getQuantity()) rejected++;
+            return;
+        }
+
+        Order resting = leaves == o.getQuantity() ? o : o.withQuantity(leaves);
+        s.own.add(resting);
+        s.resting++;
+        queueAhead.put(resting.getId(), new long[] { joinQueue(s, resting) });
+        if (orderTtlMillis > 0) {
+            if (expiries == null) expiries = new TimingWheel(EXPIRY_TICK_MILLIS, now);
+            expiries.schedule(resting.getId(), now + orderTtlMillis);
+        }
+    }
+
+    private long joinQueue(SymbolState s, Order o) {
+        if (queueModel == QueueModel.FRONT) return 0;
+        boolean buy = o.getSide() == Side.BUY;
+        double best = buy ? s.bid : s.ask;
+        double px = o.getLimitPrice();
+        if (Double.isNaN(best) || (buy ? px > best : px < best)) return 0; // improves the touch: first in line
+        return px == best ? (buy ? s.bidQty : s.askQty) : UNKNOWN;
+    }
+
+    /** A print at {@code px}: orders priced through it fill in full, orders at it fill once the queue ahead is worked off. */
+    private void onPrint(SymbolState s, double px, long qty) {
+        if (s.resting == 0) return;
+        fillThrough(s, Side.BUY, px, qty);
+        fillThrough(s, Side.SELL, px, qty);
+    }
+
+    private void fillThrough(SymbolState s, Side side, double px, long printQty) {
+        scratch.clear();
+        long usedAtPrice = 0;
+        for (PriceLevel level : s.own.levels(side).values()) {
+            double limit = level.getPrice();
+            boolean through = side == Side.BUY ? limit > px : limit < px;
+            if (!through && limit != px) break;
+            for (Order o : level.orders()) {
+                if (through) {
+                    scratch.add(o);
+                    continue;
+                }
+                long[] ahead = queueAhead.get(o.getId());
+                if (ahead[0] == UNKNOWN) continue;
+                long available = Math.max(0, printQty - ahead[0] - usedAtPrice);
+                ahead[0] = Math.max(0, ahead[0] - printQty);
+                long qty = Math.min(available, o.getQuantity());
+                if (qty > 0) {
+                    usedAtPrice += qty;
+                    scratch.add(o.withQuantity(qty));
+                }
+            }
+        }
+        double touch = side == Side.BUY ? s.ask : s.bid;
+        fillAll(s, touch, touch);
+    }
+
+    /**
+     * A quote that crosses resting orders fills them, at their limit when the market moved through them
+     * and at the new touch when they were already crossing the previous one; a shrinking touch shortens the queue.
+     */
+    private void onQuote(SymbolState s, double prevBid, double prevAsk) {
+        if (s.resting == 0) return;
+        fillCrossed(s, Side.BUY, s.ask, s.askQty, prevAsk);
+        fillCrossed(s, Side.SELL, s.bid, s.bidQty, prevBid);
+        refreshQueue(s, Side.BUY, s.bid, s.bidQty);
+        refreshQueue(s, Side.SELL, s.ask, s.askQty);
+    }
+
+    private void fillCrossed(SymbolState s, Side side, double contra, long contraQty, double prevContra) {
+        PriceLevel best = s.own.bestLevel(side);
+        if (Double.isNaN(contra) || best == null || (side == Side.BUY ? best.getPrice() < contra : best.getPrice() > contra)) return;
+        scratch.clear();
+        long left = contraQty;
+        outer:
+        for (PriceLevel level : s.own.levels(side).values()) {
+            if (side == Side.BUY ? level.getPrice() < contra : level.getPrice() > contra) break;
+            for (Order o : level.orders()) {
+                if (left == 0) break outer;
+                scratch.add(o.withQuantity(Math.min(left, o.getQuantity())));
+                left -= scratch.get(scratch.size() - 1).getQuantity();
+            }
+        }
+        fillAll(s, contra, prevContra);
+    }
+
+    /**
+     * Fills the collected order parts once iteration over the levels is done: at {@code touch} for parts
+     * that were resting through {@code prevTouch} (the unfilled rest of a marketable order), else at their limit.
+     */
+    private void fillAll(SymbolState s, double touch, double prevTouch) {
+        for (Order part : scratch) {
+            double limit = part.getLimitPrice();
+            boolean taking = !Double.isNaN(prevTouch) && (part.getSide() == Side.BUY ? limit >= prevTouch : limit <= prevTouch);
+            fillResting(s, s.own.find(part.getId()), part.getQuantity(), taking && !Double.isNaN(touch) ? touch : limit);
+        }
+    }
+
+    private void refreshQueue(SymbolState s, Side side, double best, long bestQty) {
+        PriceLevel top = s.own.bestLevel(side);
+        if (Double.isNaN(best) || top == null || (side == Side.BUY ? top.getPrice() < best : top.getPrice() > best)) return;
+        PriceLevel level = s.own.levels(side).get(best);
+        if (level == null) return;
+        for (Order o : level.orders()) {
+            long[] ahead = queueAhead.get(o.getId());
+            ahead[0] = ahead[0] == UNKNOWN
+                    ? (queueModel == QueueModel.FRONT ? 0 : bestQty)
+                    : Math.min(ahead[0], bestQty); // cancels ahead of us shrink the displayed size
+        }
+    }
+
+    private void fillResting(SymbolState s, Order o, long qty, double px) {
+        fill(o, qty, px);
+        if (s.own.fill(o, qty) == 0) {
+            queueAhead.remove(o.getId());
+            s.resting--;
+        }
+    }
+
+    private void fill(Order o, long qty, double px) {
+        if (qty <= 0) return;
+        boolean buy = o.getSide() == Side.BUY;
+        account.applyFill(new Trade(o.getSymbol(), qty, px, buy ? traderId : TAPE, buy ? TAPE : traderId), traderId);
+        fills++;
+        filledQty += qty;
+    }
+
+    private void expire(long orderId) {
+        if (queueAhead.remove(orderId) == null) return; // already filled
+        for (SymbolState s : symbols.values()) {
+            if (s.own.remove(orderId) != null) {
+                s.resting--;
+                return;
+            }
+        }
+    }
+}
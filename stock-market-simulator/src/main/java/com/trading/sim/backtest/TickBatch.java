@@ -0,0 +1,71 @@
+package com.trading.sim.backtest;
+
+import java.util.List;
+
+/**
+ * A block of decoded ticks in primitive columns, refilled in place by a {@link TickReader} so the hot
+ * loop allocates nothing. Trades use {@code price}/{@code qty}; quotes use the bid and ask columns.
+ */
+public final class TickBatch {
+    public static final byte TRADE = 'T';
+    public static final byte QUOTE = 'Q';
+
+    final int capacity;
+    int size;
+    final long[] timestamp;
+    final int[] symbol; // index into symbols
+    final byte[] type;
+    final double[] price;   // trade price, or bid price
+    final long[] qty;       // trade quantity, or bid size
+    final double[] askPrice;
+    final long[] askQty;
+    List<String> symbols = List.of(); // symbol table as of this batch, immutable
+
+    public TickBatch(int capacity) {
+        this.capacity = capacity;
+        this.timestamp = new long[capacity];
+        this.symbol = new int[capacity];
+        this.type = new byte[capacity];
+        this.price = new double[capacity];
+        this.qty = new long[capacity];
+        this.askPrice = new double[capacity];
+        this.askQty = new long[capacity];
+    }
+
+    public int size() { return size; }
+    public long timestamp(int i) { return timestamp[i]; }
+    public String symbol(int i) { return symbols.get(symbol[i]); }
+    public byte type(int i) { return type[i]; }
+
+    void clear() { size = 0; }
+
+    void addTrade(long ts, int sym, double px, long q) {
+        int i = size++;
+        timestamp[i] = ts;
+        symbol[i] = sym;
+        type[i] = TRADE;
+        price[i] = px;
+        qty[i] = q;
+    }
+
+    void addQuote(long ts, int sym, double bidPx, long bidQty, double askPx, long askSize) {
+        int i = size++;
+        timestamp[i] = ts;
+        symbol[i] = sym;
+        type[i] = QUOTE;
+        price[i] = bidPx;
+        qty[i] = bidQty;
+        askPrice[i] = askPx;
+        askQty[i] = askSize;
+    }
+
+    boolean isFull() { return size == capacity; }
+
+    /** Reference price of tick i: the trade price, or the quote midpoint (one side if the other is missing). */
+    double referencePrice(int i) {
+        if (type[i] == TRADE) return price[i];
+        boolean bid = qty[i] > 0, ask = askQty[i] > 0;
+        if (bid && ask) return (price[i] + askPrice[i]) / 2;
+        return bid ? price[i] : ask ? askPrice[i] : Double.NaN;
+    }
+}
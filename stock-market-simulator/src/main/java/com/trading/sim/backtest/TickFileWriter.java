@@ -0,0 +1,82 @@
+package com.trading.sim.backtest;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes the binary tick format: a header (magic, version) followed by records whose first byte
+ * fixes their length. A symbol record ('S') introduces each symbol before its first tick.
+ * <pre>
+ * 'S' nameLen(2) name
+ * 'T' ts(8) symbol(4) price(8) qty(8)
+ * 'Q' ts(8) symbol(4) bidPrice(8) bidQty(8) askPrice(8) askQty(8)
+ * </pre>
+ */
+public class TickFileWriter implements AutoCloseable {
+    static final int MAGIC = 0x54494B53; // "TIKS"
+    static final short VERSION = 1;
+    static final int HEADER_LEN = 6;
+    static final byte SYMBOL = 'S';
+    static final int MAX_RECORD = 1 + 2 + Short.MAX_VALUE; // a symbol record bounds every other record
+
+    private final DataOutputStream out;
+    private final Map<String, Integer> symbols = new HashMap<>();
+
+    public TickFileWriter(Path file) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+    }
+
+    public void trade(long timestampMillis, String symbol, double price, long qty) throws IOException {
+        int sym = symbol(symbol);
+        out.writeByte(TickBatch.TRADE);
+        out.writeLong(timestampMillis);
+        out.writeInt(sym);
+        out.writeDouble(price);
+        out.writeLong(qty);
+    }
+
+    public void quote(long timestampMillis, String symbol, double bidPrice, long bidQty, double askPrice, long askQty) throws IOException {
+        int sym = symbol(symbol);
+        out.writeByte(TickBatch.QUOTE);
+        out.writeLong(timestampMillis);
+        out.writeInt(sym);
+        out.writeDouble(bidPrice);
+        out.writeLong(bidQty);
+        out.writeDouble(askPrice);
+        out.writeLong(askQty);
+    }
+
+    private int symbol(String name) throws IOException {
+        Integer idx = symbols.get(name);
+        if (idx != null) return idx;
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        out.writeByte(SYMBOL);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+        symbols.put(name, symbols.size());
+        return symbols.size() - 1;
+    }
+
+    /** Re-encodes any tick file (CSV or binary) into the binary format. */
+    public static void convert(Path from, Path to) throws IOException {
+        TickBatch batch = new TickBatch(8192);
+        try (TickReader in = TickReader.open(from); TickFileWriter out = new TickFileWriter(to)) {
+            while (in.read(batch) > 0) {
+                for (int i = 0; i < batch.size; i++) {
+                    if (batch.type[i] == TickBatch.TRADE) out.trade(batch.timestamp[i], batch.symbol(i), batch.price[i], batch.qty[i]);
+                    else out.quote(batch.timestamp[i], batch.symbol(i), batch.price[i], batch.qty[i], batch.askPrice[i], batch.askQty[i]);
+                }
+            }
+        }
+    }
+
+    @Override public void close() throws IOException { out.close(); }
+}
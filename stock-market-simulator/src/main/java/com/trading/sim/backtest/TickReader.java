@@ -0,0 +1,16 @@
+package com.trading.sim.backtest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/** Streams recorded ticks into reusable batches. */
+public interface TickReader extends Closeable {
+    /** Refills {@code batch} with the next ticks; returns how many were read, 0 at end of file. */
+    int read(TickBatch batch) throws IOException;
+
+    /** Opens a CSV file (by {@code .csv} extension) or the binary tick format. */
+    static TickReader open(Path file) throws IOException {
+        return file.getFileName().toString().endsWith(".csv") ? new CsvTickReader(file) : new BinaryTickReader(file);
+    }
+}
@@ -0,0 +1,40 @@
+package com.trading.sim.engine;
+
+import com.trading.sim.order.Order;
+import com.trading.sim.order.Trade;
+
+import java.util.List;
+
+/**
+ * Outcome of an uncross: the clearing price (NaN when nothing crossed), executed volume, the
+ * remaining surplus at that price (positive = buy side), the trades and any MARKET orders that
+ * were left unfilled and removed.
+ */
+public final class AuctionResult {
+    private final String symbol;
+    private final double price;
+    private final long volume;
+    private final long imbalance;
+    private final List<Trade> trades;
+    private final List<Order> unfilled;
+
+    public AuctionResult(String symbol, double price, long volume, long imbalance, List<Trade> trades, List<Order> unfilled) {
+        this.symbol = symbol;
+        this.price = price;
+        this.volume = volume;
+        this.imbalance = imbalance;
+        this.trades = trades;
+        this.unfilled = unfilled;
+    }
+
+    public String getSymbol() { return symbol; }
+    public double getPrice() { return price; }
+    public long getVolume() { return volume; }
+    public long getImbalance() { return imbalance; }
+    public List<Trade> getTrades() { return trades; }
+    public List<Order> getUnfilled() { return unfilled; }
+
+    @Override public String toString() {
+        return "Auction{" + symbol + " px=" + price + ", vol=" + volume + ", imbalance=" + imbalance + '}';
+    }
+}
@@ -0,0 +1,13 @@
+package com.trading.sim.engine;
+
+import com.trading.sim.order.Side;
+
+/**
+ * Receives aggregated price-level changes from a MatchingEngine.
+ * Called while the book lock is held, so updates for one symbol arrive in book order;
+ * implementations must be quick and must not call back into the market.
+ */
+public interface BookListener {
+    /** New state of one level; a quantity of 0 means the level is now empty. */
+    void onLevelChange(String symbol, Side side, double price, long quantity, int orderCount);
+}
@@ -1,94 +1,525 @@
 package com.trading.sim.engine;
 
+import com.trading.sim.order.MassQuote;
 import com.trading.sim.order.Order;
 import com.trading.sim.order.OrderType;
+import com.trading.sim.order.QuoteAck;
 import com.trading.sim.order.Side;
+import com.trading.sim.order.TimeInForce;
 import com.trading.sim.order.Trade;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.PriorityQueue;
+import java.util.Map;
+import java.util.NavigableMap;
 
 /**
  * Single-symbol matching engine operating on one OrderBook.
  * It exposes a synchronous match() method; callers ensure single-threaded access per symbol.
+ * In continuous trading orders match on arrival; in a call phase they are collected and cross
+ * together at one price when the phase ends (see {@link #setPhase}).
  */
 public class MatchingEngine {
+    /** A trader's quotes on this book: the order at each ladder level of the last mass quote, null when empty. */
+    private static final class QuoteSlots {
+        Order[] bids = new Order[0];
+        Order[] asks = new Order[0];
+    }
+
     private final OrderBook book;
+    private final BookListener bookListener;
+    private final Map<String, QuoteSlots> quoteSlots = new HashMap<>(); // by trader id; guarded by the book lock
+    private TradingPhase phase = TradingPhase.CONTINUOUS; // guarded by the book lock
 
-    public MatchingEngine(OrderBook book) { this.book = book; }
+    public MatchingEngine(OrderBook book) { this(book, null); }
+
+    public MatchingEngine(OrderBook book, BookListener bookListener) {
+        this.book = book;
+        this.bookListener = bookListener;
+    }
 
     public List<Trade> match(Order incoming) {
         List<Trade> fills = new ArrayList<>();
+        match(incoming, fills);
+        return fills;
+    }
 
+    /**
+     * Matches {@code incoming}, appending its trades (and those of any stops it fires) to {@code fills}.
+     * Returns true if part of the order is still working when the call returns: resting, queued for
+     * an auction, or a dormant stop. False means anything not filled has been dropped.
+     */
+    public boolean match(Order incoming, List<Trade> fills) {
+        long id = incoming.getId();
         book.lock().lock();
         try {
-            if (incoming.getType() == OrderType.MARKET) {
-                executeMarket(incoming, fills);
+            if (incoming.isStop()) {
+                if (!StopBook.isTriggeredBy(incoming, book.getLastTradePrice())) {
+                    book.addStop(incoming);
+                    return true;
+                }
+                incoming = incoming.triggered();
+            }
+            if (phase.isCall()) {
+                collect(incoming);
             } else {
-                executeLimit(incoming, fills);
+                int before = fills.size();
+                execute(incoming, fills);
+                if (fills.size() > before) fireStops(fills);
             }
+            return book.find(id) != null || book.findMarket(id) != null || book.stops().find(id) != null;
         } finally {
             book.lock().unlock();
         }
+    }
 
-        return fills;
+    /**
+     * Replaces the trader's quote ladder on this book under a single lock acquisition, so other orders
+     * see either the old ladder or the new one. Existing quotes are reused rather than cancelled: a
+     * quote already resting at a price of the new ladder stays there (amended in place if only the size
+     * changed, keeping its time priority unless the size grew), and the remaining ones move to the new
+     * prices under their order ids. Only surplus quotes are pulled. When the ladder shifts by a level,
+     * that touches a single order per side instead of all of them.
+     *
+     * In continuous trading quotes are passive only: a quote that would cross the opposite side is
+     * rejected rather than traded, so a mass quote never produces trades or fires stops. Appends a PULLED
+     * ack per lifted quote, then one ack per non-zero level (bids, then asks); a quote whose new price is
+     * rejected has already left its old one, so its REJECTED ack is preceded by a PULLED ack.
+     */
+    public void quote(String traderId, MassQuote.Ladder ladder, List<QuoteAck> acks) {
+        book.lock().lock();
+        try {
+            QuoteSlots slots = quoteSlots.computeIfAbsent(traderId, id -> new QuoteSlots());
+            // Lift everything that moves or goes before placing anything, so the new ladder is
+            // checked against the book without the trader's own outgoing quotes.
+            Order[] bids = assignQuotes(ladder, Side.BUY, slots.bids, acks);
+            Order[] asks = assignQuotes(ladder, Side.SELL, slots.asks, acks);
+            long now = System.nanoTime();
+            placeQuotes(traderId, ladder, Side.BUY, bids, now, acks);
+            placeQuotes(traderId, ladder, Side.SELL, asks, now, acks);
+            slots.bids = bids;
+            slots.asks = asks;
+        } finally {
+            book.lock().unlock();
+        }
     }
 
-    private void executeMarket(Order incoming, List<Trade> fills) {
-        PriorityQueue<Order> opp = incoming.getSide() == Side.BUY ? book.asks() : book.bids();
-        long remaining = incoming.getQuantity();
-        while (remaining > 0 && !opp.isEmpty()) {
-            Order top = opp.peek();
-            long tradeQty = Math.min(remaining, top.getQuantity());
-            double price = top.getLimitPrice(); // best available
-            fills.add(new Trade(incoming.getSymbol(), tradeQty, price,
-                    incoming.getSide() == Side.BUY ? incoming.getTraderId() : top.getTraderId(),
-                    incoming.getSide() == Side.SELL ? incoming.getTraderId() : top.getTraderId()));
+    /**
+     * Maps the trader's live quotes onto the new levels: same price first, then the rest in ladder order
+     * (taken out of the book to be re-entered at their new price); quotes left over are pulled.
+     */
+    private Order[] assignQuotes(MassQuote.Ladder ladder, Side side, Order[] old, List<QuoteAck> acks) {
+        int levels = ladder.levels(side);
+        Order[] next = new Order[levels];
+        for (int j = 0; j < old.length; j++) {
+            if (old[j] != null) old[j] = book.find(old[j].getId()); // null once filled or cancelled
+        }
+        for (int i = 0; i < levels; i++) {
+            if (ladder.quantity(side, i) == 0) continue;
+            double px = ladder.price(side, i);
+            for (int j = 0; j < old.length; j++) {
+                if (old[j] != null && old[j].getLimitPrice() == px) {
+                    next[i] = old[j];
+                    old[j] = null;
+                    break;
+                }
+            }
+        }
+        int j = 0;
+        for (int i = 0; i < levels; i++) {
+            if (next[i] != null || ladder.quantity(side, i) == 0) continue;
+            while (j < old.length && old[j] == null) j++;
+            if (j == old.length) break;
+            removeQuote(old[j]);
+            next[i] = old[j++];
+        }
+        for (; j < old.length; j++) {
+            if (old[j] == null) continue;
+            removeQuote(old[j]);
+            acks.add(new QuoteAck(book.getSymbol(), side, j, old[j].getId(), old[j].getLimitPrice(), 0, QuoteAck.Status.PULLED));
+        }
+        return next;
+    }
 
-            remaining -= tradeQty;
-            // Remove or reduce top order. Since Order is immutable, we pop and if needed push remainder.
-            opp.poll();
-            long remainderOpp = top.getQuantity() - tradeQty;
-            if (remainderOpp > 0) {
-                Order remainder = Order.limit(top.getTraderId(), top.getSymbol(), top.getSide(), remainderOpp, top.getLimitPrice());
-                // Preserve original time priority: we cannot change timestamp; this is a simplification.
-                opp.add(remainder);
+    private void placeQuotes(String traderId, MassQuote.Ladder ladder, Side side, Order[] slots, long now, List<QuoteAck> acks) {
+        for (int i = 0; i < slots.length; i++) {
+            long qty = ladder.quantity(side, i);
+            if (qty == 0) continue;
+            double px = ladder.price(side, i);
+            Order prev = slots[i];
+            QuoteAck.Status status;
+            if (prev != null && prev.getLimitPrice() == px) { // still resting at this price: size only
+                if (prev.getQuantity() == qty) {
+                    acks.add(new QuoteAck(book.getSymbol(), side, i, prev.getId(), px, qty, QuoteAck.Status.UNCHANGED));
+                    continue;
+                }
+                slots[i] = book.amend(prev, qty);
+                status = QuoteAck.Status.AMENDED;
+            } else if (!phase.isCall() && crossesContra(side, px)) {
+                slots[i] = null;
+                if (prev != null) { // already lifted from its old price by assignQuotes
+                    acks.add(new QuoteAck(book.getSymbol(), side, i, prev.getId(), prev.getLimitPrice(), 0, QuoteAck.Status.PULLED));
+                }
+                acks.add(new QuoteAck(book.getSymbol(), side, i, 0, px, qty, QuoteAck.Status.REJECTED));
+                continue;
+            } else {
+                slots[i] = prev != null ? prev.requoted(px, qty, now) : Order.limit(traderId, book.getSymbol(), side, qty, px);
+                book.add(slots[i]);
+                status = prev != null ? QuoteAck.Status.REPLACED : QuoteAck.Status.NEW;
+            }
+            publishLevel(side, px);
+            acks.add(new QuoteAck(book.getSymbol(), side, i, slots[i].getId(), px, qty, status));
+        }
+    }
+
+    private boolean crossesContra(Side side, double px) {
+        PriceLevel contra = book.bestLevel(side.opposite());
+        return contra != null && (side == Side.BUY ? px >= contra.getPrice() : px <= contra.getPrice());
+    }
+
+    private void removeQuote(Order live) {
+        book.remove(live.getId());
+        publishLevel(live.getSide(), live.getLimitPrice());
+    }
+
+    /** Removes a resting order or dormant stop if it belongs to the given trader; returns it, or null. */
+    public Order cancel(String traderId, long orderId) {
+        book.lock().lock();
+        try {
+            Order stop = book.stops().find(orderId);
+            if (stop != null) return stop.getTraderId().equals(traderId) ? book.stops().remove(orderId) : null;
+
+            Order queued = book.findMarket(orderId);
+            if (queued != null) return queued.getTraderId().equals(traderId) ? book.removeMarket(orderId) : null;
+
+            Order o = book.find(orderId);
+            if (o == null || !o.getTraderId().equals(traderId)) return null;
+            book.remove(orderId);
+            publishLevel(o.getSide(), o.getLimitPrice());
+            return o;
+        } finally {
+            book.lock().unlock();
+        }
+    }
+
+    /**
+     * Advances the book's expiry wheel to {@code nowMillis} and removes every GTD order or stop whose
+     * time has come. Returns the removed orders with their open quantity at expiry.
+     */
+    public List<Order> expire(long nowMillis) {
+        List<Order> expired = new ArrayList<>();
+        book.lock().lock();
+        try {
+            book.expiries().advance(nowMillis, id -> {
+                Order o = book.remove(id);
+                if (o != null) {
+                    publishLevel(o.getSide(), o.getLimitPrice());
+                    expired.add(o);
+                    return;
+                }
+                o = book.stops().remove(id);
+                if (o == null) o = book.removeMarket(id);
+                if (o != null) expired.add(o); // otherwise already filled or cancelled
+            });
+        } finally {
+            book.lock().unlock();
+        }
+        return expired;
+    }
+
+    public TradingPhase phase() {
+        book.lock().lock();
+        try {
+            return phase;
+        } finally {
+            book.lock().unlock();
+        }
+    }
+
+    /**
+     * Moves the book to another phase. Leaving PRE_OPEN or PRE_CLOSE (or CLOSED for anything but
+     * PRE_OPEN) uncrosses the collected orders first; the result also carries the trades of any stops
+     * the uncross triggered. Unfilled MARKET orders do not survive an uncross.
+     *
+     * @param referencePrice breaks price ties and prices a market-orders-only cross, e.g. the last trade or mark
+     */
+    public AuctionResult setPhase(TradingPhase next, double referencePrice) {
+        book.lock().lock();
+        try {
+            TradingPhase prev = phase;
+            boolean uncross = prev.isCall() && next != prev && !(prev == TradingPhase.CLOSED && next == TradingPhase.PRE_OPEN);
+            AuctionResult result = uncross ? uncross(referencePrice) : clearing(referencePrice, null);
+            phase = next;
+            if (uncross && !result.getTrades().isEmpty()) fireStops(result.getTrades());
+            return result;
+        } finally {
+            book.lock().unlock();
+        }
+    }
+
+    /** Restores a phase without uncrossing, e.g. after loading a snapshot. */
+    public void restorePhase(TradingPhase p) {
+        book.lock().lock();
+        try {
+            phase = p;
+        } finally {
+            book.lock().unlock();
+        }
+    }
+
+    /** Price, volume and imbalance the book would uncross at now, without executing anything. */
+    public AuctionResult indicative(double referencePrice) {
+        book.lock().lock();
+        try {
+            return clearing(referencePrice, null);
+        } finally {
+            book.lock().unlock();
+        }
+    }
+
+    /** Call phase: MARKET orders queue for the uncross, limits rest without matching; IOC/FOK limits cannot rest and are dropped. */
+    private void collect(Order o) {
+        if (o.getType() == OrderType.MARKET) {
+            book.addMarket(o);
+        } else if (o.getTimeInForce() == TimeInForce.GTC || o.getTimeInForce() == TimeInForce.GTD) {
+            book.add(o);
+            publishLevel(o.getSide(), o.getLimitPrice());
+        }
+    }
+
+    private AuctionResult uncross(double referencePrice) {
+        List<Trade> trades = new ArrayList<>();
+        AuctionResult clearing = clearing(referencePrice, trades);
+        List<Order> unfilled = new ArrayList<>(book.marketOrders(Side.BUY));
+        unfilled.addAll(book.marketOrders(Side.SELL));
+        for (Order o : unfilled) book.removeMarket(o.getId());
+        if (!trades.isEmpty()) book.setLastTradePrice(clearing.getPrice());
+        return new AuctionResult(book.getSymbol(), clearing.getPrice(), clearing.getVolume(), clearing.getImbalance(), trades, unfilled);
+    }
+
+    /**
+     * Finds the clearing price over the crossing price levels and, when {@code trades} is not null,
+     * executes at it. Demand at each candidate price (queued market buys plus bids at or above it) and
+     * supply (market sells plus asks at or below it) are built as cumulative arrays in one pass over
+     * the levels, so pricing is O(levels) however many orders are queued. The price maximises
+     * executed volume, then minimises the surplus; remaining ties go to the highest price when every
+     * tied price has a buy surplus, the lowest when every one has a sell surplus, and otherwise to the
+     * price closest to the reference.
+     */
+    private AuctionResult clearing(double referencePrice, List<Trade> trades) {
+        long mktBuy = book.marketQuantity(Side.BUY), mktSell = book.marketQuantity(Side.SELL);
+        NavigableMap<Double, PriceLevel> bids = book.bids(), asks = book.asks();
+
+        // Only prices between the lowest executable ask and the highest executable bid can trade.
+        double hi = bids.isEmpty() ? Double.NaN : bids.firstKey();
+        double lo = asks.isEmpty() ? Double.NaN : asks.firstKey();
+        if (mktBuy > 0 && !asks.isEmpty()) hi = Double.isNaN(hi) ? asks.lastKey() : Math.max(hi, asks.lastKey());
+        if (mktSell > 0 && !bids.isEmpty()) lo = Double.isNaN(lo) ? bids.lastKey() : Math.min(lo, bids.lastKey());
+
+        double[] askPx = new double[0], bidPx = new double[0];
+        long[] askQty = new long[0], bidQty = new long[0];
+        if (!Double.isNaN(hi) && !Double.isNaN(lo) && lo <= hi) {
+            NavigableMap<Double, PriceLevel> askRange = asks.subMap(lo, true, hi, true);  // ascending
+            NavigableMap<Double, PriceLevel> bidRange = bids.subMap(hi, true, lo, true);  // descending
+            askPx = new double[askRange.size()];
+            askQty = new long[askPx.length];
+            int i = 0;
+            for (PriceLevel l : askRange.values()) { askPx[i] = l.getPrice(); askQty[i++] = l.getTotalQuantity(); }
+            bidPx = new double[bidRange.size()];
+            bidQty = new long[bidPx.length];
+            i = 0;
+            for (PriceLevel l : bidRange.values()) { bidPx[i] = l.getPrice(); bidQty[i++] = l.getTotalQuantity(); }
+        }
+
+        // Candidate prices ascending: merge of ask prices (ascending) and bid prices (descending, read backwards).
+        double[] px = new double[askPx.length + bidPx.length];
+        int n = 0;
+        for (int a = 0, b = bidPx.length - 1; a < askPx.length || b >= 0; ) {
+            double p = b < 0 || (a < askPx.length && askPx[a] <= bidPx[b]) ? askPx[a++] : bidPx[b--];
+            if (n == 0 || px[n - 1] != p) px[n++] = p;
+        }
+        long[] supply = new long[n], demand = new long[n];
+        long cum = mktSell;
+        for (int i = 0, a = 0; i < n; i++) {
+            while (a < askPx.length && askPx[a] <= px[i]) cum += askQty[a++];
+            supply[i] = cum;
+        }
+        cum = mktBuy;
+        for (int i = n - 1, b = 0; i >= 0; i--) {
+            while (b < bidPx.length && bidPx[b] >= px[i]) cum += bidQty[b++];
+            demand[i] = cum;
+        }
+
+        int best = -1;
+        long bestVolume = 0, bestSurplus = Long.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            long volume = Math.min(demand[i], supply[i]), surplus = Math.abs(demand[i] - supply[i]);
+            if (volume > bestVolume || (volume == bestVolume && volume > 0 && surplus < bestSurplus)) {
+                best = i;
+                bestVolume = volume;
+                bestSurplus = surplus;
             }
         }
-        // Any remaining quantity is unfilled and disappears (IOC behavior for MARKET orders).
+
+        double price;
+        long volume, imbalance;
+        if (best >= 0) {
+            boolean allBuy = true, allSell = true;
+            int first = -1, last = -1;
+            for (int i = 0; i < n; i++) {
+                if (Math.min(demand[i], supply[i]) != bestVolume || Math.abs(demand[i] - supply[i]) != bestSurplus) continue;
+                if (first < 0) first = i;
+                last = i;
+                allBuy &= demand[i] > supply[i];
+                allSell &= demand[i] < supply[i];
+            }
+            if (allBuy) best = last;
+            else if (allSell) best = first;
+            else if (!Double.isNaN(referencePrice)) {
+                for (int i = first; i <= last; i++) {
+                    boolean tied = Math.min(demand[i], supply[i]) == bestVolume && Math.abs(demand[i] - supply[i]) == bestSurplus;
+                    if (tied && Math.abs(px[i] - referencePrice) < Math.abs(px[best] - referencePrice)) best = i;
+                }
+            }
+            price = px[best];
+            volume = bestVolume;
+            imbalance = demand[best] - supply[best];
+        } else if (mktBuy > 0 && mktSell > 0 && !Double.isNaN(referencePrice)) {
+            // nothing priced crosses: market orders meet each other at the reference price
+            price = referencePrice;
+            volume = Math.min(mktBuy, mktSell);
+            imbalance = mktBuy - mktSell;
+        } else {
+            return new AuctionResult(book.getSymbol(), Double.NaN, 0, 0, trades == null ? List.of() : trades, List.of());
+        }
+
+        if (trades != null) {
+            allocate(price, volume, trades);
+            for (double p : bidPx) if (p >= price) publishLevel(Side.BUY, p);
+            for (double p : askPx) if (p <= price) publishLevel(Side.SELL, p);
+        }
+        return new AuctionResult(book.getSymbol(), price, volume, imbalance, trades == null ? List.of() : trades, List.of());
     }
 
-    private void executeLimit(Order incoming, List<Trade> fills) {
-        PriorityQueue<Order> opp = incoming.getSide() == Side.BUY ? book.asks() : book.bids();
-        PriorityQueue<Order> same = incoming.getSide() == Side.BUY ? book.bids() : book.asks();
+    /** Executes {@code volume} at {@code price} in priority order: queued market orders first, then limits by price and time. */
+    private void allocate(double price, long volume, List<Trade> trades) {
+        while (volume > 0) {
+            Order buy = nextForAuction(Side.BUY), sell = nextForAuction(Side.SELL);
+            long qty = Math.min(volume, Math.min(buy.getQuantity(), sell.getQuantity()));
+            trades.add(new Trade(book.getSymbol(), qty, price, buy.getTraderId(), sell.getTraderId(), buy.getId(), sell.getId(),
+                    buy.getQuantity() - qty, sell.getQuantity() - qty, null));
+            fillForAuction(buy, qty);
+            fillForAuction(sell, qty);
+            volume -= qty;
+        }
+    }
+
+    private Order nextForAuction(Side side) {
+        Iterator<Order> queued = book.marketOrders(side).iterator();
+        return queued.hasNext() ? queued.next() : book.bestLevel(side).first(); // volume guarantees one is left
+    }
+
+    private void fillForAuction(Order o, long qty) {
+        if (o.getType() == OrderType.MARKET) book.fillMarket(o, qty);
+        else book.fill(o, qty);
+    }
+
+    private void execute(Order incoming, List<Trade> fills) {
+        boolean isMarket = incoming.getType() == OrderType.MARKET;
+        Side oppSide = incoming.getSide().opposite();
+        TimeInForce tif = incoming.getTimeInForce();
+        if (tif == TimeInForce.FOK && !canFillCompletely(incoming)) return;
 
         long remaining = incoming.getQuantity();
-        while (remaining > 0 && !opp.isEmpty()) {
-            Order top = opp.peek();
-            Double topPx = top.getLimitPrice();
-            Double px = incoming.getLimitPrice();
-            boolean cross = incoming.getSide() == Side.BUY ? px >= topPx : px <= topPx;
-            if (!cross) break;
+        PriceLevel touched = null;
+        while (remaining > 0) {
+            PriceLevel level = book.bestLevel(oppSide);
+            if (level == null) break;
+            double levelPx = level.getPrice();
+            if (!isMarket) {
+                double px = incoming.getLimitPrice();
+                boolean cross = incoming.getSide() == Side.BUY ? px >= levelPx : px <= levelPx;
+                if (!cross) break;
+            }
 
-            long tradeQty = Math.min(remaining, top.getQuantity());
-            double price = topPx; // price-time priority => execute at resting order price
-            fills.add(new Trade(incoming.getSymbol(), tradeQty, price,
-                    incoming.getSide() == Side.BUY ? incoming.getTraderId() : top.getTraderId(),
-                    incoming.getSide() == Side.SELL ? incoming.getTraderId() : top.getTraderId()));
+            if (touched != null && touched != level) publishLevel(touched, oppSide);
+            touched = level;
 
+            Order top = level.first();
+            long tradeQty = Math.min(remaining, top.getQuantity());
             remaining -= tradeQty;
-            opp.poll();
-            long remainderOpp = top.getQuantity() - tradeQty;
-            if (remainderOpp > 0) {
-                Order remainder = Order.limit(top.getTraderId(), top.getSymbol(), top.getSide(), remainderOpp, top.getLimitPrice());
-                opp.add(remainder);
+            long restingLeaves = top.getQuantity() - tradeQty;
+            // price-time priority => execute at resting order price
+            fills.add(incoming.getSide() == Side.BUY
+                    ? new Trade(incoming.getSymbol(), tradeQty, levelPx, incoming.getTraderId(), top.getTraderId(),
+                            incoming.getId(), top.getId(), remaining, restingLeaves, Side.BUY)
+                    : new Trade(incoming.getSymbol(), tradeQty, levelPx, top.getTraderId(), incoming.getTraderId(),
+                            top.getId(), incoming.getId(), restingLeaves, remaining, Side.SELL));
+
+            book.setLastTradePrice(levelPx);
+            book.fill(top, tradeQty); // partially filled orders keep their id and queue position
+        }
+
+        if (touched != null) publishLevel(touched, oppSide);
+
+        if (remaining > 0 && !isMarket && (tif == TimeInForce.GTC || tif == TimeInForce.GTD)) {
+            book.add(incoming.withQuantity(remaining));
+            publishLevel(incoming.getSide(), incoming.getLimitPrice());
+        }
+        // Any other remaining quantity (MARKET, IOC) is unfilled and disappears.
+    }
+
+    /** FOK pre-check: sums level totals from the best price until the order is covered or stops crossing. */
+    private boolean canFillCompletely(Order incoming) {
+        long needed = incoming.getQuantity();
+        boolean isMarket = incoming.getType() == OrderType.MARKET;
+        for (PriceLevel level : book.levels(incoming.getSide().opposite()).values()) {
+            if (!isMarket) {
+                double px = incoming.getLimitPrice();
+                boolean cross = incoming.getSide() == Side.BUY ? px >= level.getPrice() : px <= level.getPrice();
+                if (!cross) return false;
             }
+            needed -= level.getTotalQuantity();
+            if (needed <= 0) return true;
         }
+        return false;
+    }
 
-        if (remaining > 0) {
-            Order rest = Order.limit(incoming.getTraderId(), incoming.getSymbol(), incoming.getSide(), remaining, incoming.getLimitPrice());
-            same.add(rest);
+    /**
+     * Runs stops triggered by the trades so far, and any further stops their own trades trigger,
+     * within the same call. Triggered stops queue FIFO in firing order and each is matched to
+     * completion before the next, so a cascade is deterministic for a given book.
+     */
+    private void fireStops(List<Trade> fills) {
+        ArrayDeque<Order> pending = new ArrayDeque<>();
+        List<Order> triggered = new ArrayList<>();
+        int checkedFills = 0;
+        while (true) {
+            if (fills.size() > checkedFills) {
+                checkedFills = fills.size();
+                triggered.clear();
+                book.stops().drainTriggered(book.getLastTradePrice(), triggered);
+                pending.addAll(triggered);
+            }
+            Order next = pending.poll();
+            if (next == null) return;
+            if (phase.isCall()) collect(next.triggered());
+            else execute(next.triggered(), fills);
         }
     }
+
+    private void publishLevel(Side side, double price) {
+        if (bookListener == null) return;
+        PriceLevel level = book.levels(side).get(price);
+        if (level == null) bookListener.onLevelChange(book.getSymbol(), side, price, 0, 0);
+        else publishLevel(level, side);
+    }
+
+    private void publishLevel(PriceLevel level, Side side) {
+        if (bookListener == null) return;
+        bookListener.onLevelChange(book.getSymbol(), side, level.getPrice(), level.getTotalQuantity(), level.size());
+    }
 }
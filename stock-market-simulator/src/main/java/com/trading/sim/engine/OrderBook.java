@@ -1,54 +1,195 @@
 package com.trading.sim.engine;
 
 import com.trading.sim.order.Order;
+import com.trading.sim.order.Side;
+import com.trading.sim.order.TimeInForce;
 
-import java.util.Optional;
-import java.util.PriorityQueue;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Price–time priority order book with explicit comparators to avoid type inference issues.
+ * Price–time priority order book organised as price levels (best price first) with an id index,
+ * so that matching walks levels in order and cancels are O(1) plus the level lookup.
+ * Mutators expect the caller to hold {@link #lock()}; the query helpers take it themselves.
  */
 public class OrderBook {
+    private static final long EXPIRY_TICK_MILLIS = 10;
+
     private final String symbol;
-    private final PriorityQueue<Order> bids; // highest price first, then earliest time
-    private final PriorityQueue<Order> asks; // lowest price first, then earliest time
+    private final TreeMap<Double, PriceLevel> bids = new TreeMap<>(Comparator.reverseOrder()); // highest price first
+    private final TreeMap<Double, PriceLevel> asks = new TreeMap<>(); // lowest price first
+    private final Map<Long, Order> byId = new HashMap<>();
+    private final LinkedHashMap<Long, Order> marketBuys = new LinkedHashMap<>(); // collected during a call phase
+    private final LinkedHashMap<Long, Order> marketSells = new LinkedHashMap<>();
+    private final StopBook stops = new StopBook();
+    private final TimingWheel expiries;
     private final ReentrantLock lock = new ReentrantLock();
+    private double lastTradePrice = Double.NaN;
+    private int bidOrders;
+    private int askOrders;
+    private long marketBuyQty;
+    private long marketSellQty;
+
+    public OrderBook(String symbol) { this(symbol, System.currentTimeMillis()); }
 
-    public OrderBook(String symbol) {
+    /** @param startMillis time the GTD expiry wheel starts from, on the clock later passed to {@code expire} */
+    public OrderBook(String symbol, long startMillis) {
         this.symbol = symbol;
+        this.expiries = new TimingWheel(EXPIRY_TICK_MILLIS, startMillis);
+    }
 
-        Comparator<Order> bidCmp = (o1, o2) -> {
-            double p1 = o1.getLimitPrice() == null ? Double.NEGATIVE_INFINITY : o1.getLimitPrice();
-            double p2 = o2.getLimitPrice() == null ? Double.NEGATIVE_INFINITY : o2.getLimitPrice();
-            int pc = Double.compare(p2, p1); // higher price first
-            if (pc != 0) return pc;
-            return Long.compare(o1.getTimestampNanos(), o2.getTimestampNanos()); // earlier time first
-        };
+    public String getSymbol() { return symbol; }
+    public ReentrantLock lock() { return lock; }
 
-        Comparator<Order> askCmp = (o1, o2) -> {
-            double p1 = o1.getLimitPrice() == null ? Double.POSITIVE_INFINITY : o1.getLimitPrice();
-            double p2 = o2.getLimitPrice() == null ? Double.POSITIVE_INFINITY : o2.getLimitPrice();
-            int pc = Double.compare(p1, p2); // lower price first
-            if (pc != 0) return pc;
-            return Long.compare(o1.getTimestampNanos(), o2.getTimestampNanos()); // earlier time first
-        };
+    /** Dormant stop orders for this symbol. */
+    public StopBook stops() { return stops; }
 
-        this.bids = new PriorityQueue<>(bidCmp);
-        this.asks = new PriorityQueue<>(askCmp);
+    /** GTD expiry timers (order ids) for both resting orders and dormant stops. */
+    public TimingWheel expiries() { return expiries; }
+
+    /** Price of the most recent trade in this book, NaN before the first one. */
+    public double getLastTradePrice() { return lastTradePrice; }
+    public void setLastTradePrice(double price) { this.lastTradePrice = price; }
+
+    /** Bid levels, best (highest) first. Read-only view; hold the lock while iterating. */
+    public NavigableMap<Double, PriceLevel> bids() { return Collections.unmodifiableNavigableMap(bids); }
+
+    /** Ask levels, best (lowest) first. Read-only view; hold the lock while iterating. */
+    public NavigableMap<Double, PriceLevel> asks() { return Collections.unmodifiableNavigableMap(asks); }
+
+    public NavigableMap<Double, PriceLevel> levels(Side side) { return side == Side.BUY ? bids() : asks(); }
+
+    /** Best level on the given side, or null when that side is empty. */
+    public PriceLevel bestLevel(Side side) {
+        Map.Entry<Double, PriceLevel> e = (side == Side.BUY ? bids : asks).firstEntry();
+        return e == null ? null : e.getValue();
     }
 
-    public String getSymbol() { return symbol; }
-    public ReentrantLock lock() { return lock; }
-    public PriorityQueue<Order> bids() { return bids; }
-    public PriorityQueue<Order> asks() { return asks; }
+    public Order find(long orderId) { return byId.get(orderId); }
+
+    /** Rests a limit order at the back of its price level, arming its expiry timer if it is GTD. */
+    public void add(Order o) {
+        TreeMap<Double, PriceLevel> levels = o.getSide() == Side.BUY ? bids : asks;
+        levels.computeIfAbsent(o.getLimitPrice(), PriceLevel::new).append(o);
+        byId.put(o.getId(), o);
+        if (o.getSide() == Side.BUY) bidOrders++; else askOrders++;
+        if (o.getTimeInForce() == TimeInForce.GTD) expiries.schedule(o.getId(), o.getExpireAtMillis());
+    }
+
+    /** Parks a stop order until triggered, arming its expiry timer if it is GTD. */
+    public void addStop(Order stop) {
+        stops.add(stop);
+        if (stop.getTimeInForce() == TimeInForce.GTD) expiries.schedule(stop.getId(), stop.getExpireAtMillis());
+    }
+
+    /** Removes a resting order by id; returns it, or null if it is not in the book. */
+    public Order remove(long orderId) {
+        Order o = byId.remove(orderId);
+        if (o == null) return null;
+        TreeMap<Double, PriceLevel> levels = o.getSide() == Side.BUY ? bids : asks;
+        PriceLevel level = levels.get(o.getLimitPrice());
+        level.remove(orderId);
+        if (level.isEmpty()) levels.remove(o.getLimitPrice());
+        if (o.getSide() == Side.BUY) bidOrders--; else askOrders--;
+        return o;
+    }
+
+    /** Takes {@code qty} off a resting order, removing it once fully filled. Returns the open quantity left. */
+    public long fill(Order resting, long qty) {
+        long leaves = resting.getQuantity() - qty;
+        if (leaves <= 0) {
+            remove(resting.getId());
+            return 0;
+        }
+        Order reduced = resting.withQuantity(leaves);
+        (resting.getSide() == Side.BUY ? bids : asks).get(resting.getLimitPrice()).replace(reduced);
+        byId.put(reduced.getId(), reduced);
+        return leaves;
+    }
+
+    /** Changes a resting order's size at the same price: a reduction keeps its queue position, an increase goes to the back. */
+    public Order amend(Order resting, long quantity) {
+        PriceLevel level = (resting.getSide() == Side.BUY ? bids : asks).get(resting.getLimitPrice());
+        Order amended;
+        if (quantity > resting.getQuantity()) {
+            amended = resting.requoted(resting.getLimitPrice(), quantity, System.nanoTime());
+            level.requeue(amended);
+        } else {
+            amended = resting.withQuantity(quantity);
+            level.replace(amended);
+        }
+        byId.put(amended.getId(), amended);
+        return amended;
+    }
+
+    /** Queues a MARKET order collected during a call phase; it executes at the uncross price ahead of all limits. */
+    public void addMarket(Order o) {
+        (o.getSide() == Side.BUY ? marketBuys : marketSells).put(o.getId(), o);
+        if (o.getSide() == Side.BUY) marketBuyQty += o.getQuantity(); else marketSellQty += o.getQuantity();
+    }
+
+    /** Queued MARKET orders of one side in arrival order. Read-only view; hold the lock while iterating. */
+    public Collection<Order> marketOrders(Side side) {
+        return Collections.unmodifiableCollection((side == Side.BUY ? marketBuys : marketSells).values());
+    }
+
+    public long marketQuantity(Side side) { return side == Side.BUY ? marketBuyQty : marketSellQty; }
+
+    public Order findMarket(long orderId) {
+        Order o = marketBuys.get(orderId);
+        return o != null ? o : marketSells.get(orderId);
+    }
+
+    public Order removeMarket(long orderId) {
+        Order o = marketBuys.remove(orderId);
+        if (o == null) o = marketSells.remove(orderId);
+        if (o == null) return null;
+        if (o.getSide() == Side.BUY) marketBuyQty -= o.getQuantity(); else marketSellQty -= o.getQuantity();
+        return o;
+    }
+
+    /** Takes {@code qty} off a queued MARKET order, removing it once fully filled. Returns the open quantity left. */
+    public long fillMarket(Order o, long qty) {
+        long leaves = o.getQuantity() - qty;
+        if (leaves <= 0) {
+            removeMarket(o.getId());
+            return 0;
+        }
+        (o.getSide() == Side.BUY ? marketBuys : marketSells).put(o.getId(), o.withQuantity(leaves)); // keeps queue position
+        if (o.getSide() == Side.BUY) marketBuyQty -= qty; else marketSellQty -= qty;
+        return leaves;
+    }
+
+    public int bidCount() {
+        lock.lock();
+        try {
+            return bidOrders;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int askCount() {
+        lock.lock();
+        try {
+            return askOrders;
+        } finally {
+            lock.unlock();
+        }
+    }
 
     public Optional<Double> bestBid() {
         lock.lock();
         try {
-            Order o = bids.peek();
-            return (o == null) ? Optional.empty() : Optional.ofNullable(o.getLimitPrice());
+            return bids.isEmpty() ? Optional.empty() : Optional.of(bids.firstKey());
         } finally {
             lock.unlock();
         }
@@ -57,8 +198,7 @@ public class OrderBook {
     public Optional<Double> bestAsk() {
         lock.lock();
         try {
-            Order o = asks.peek();
-            return (o == null) ? Optional.empty() : Optional.ofNullable(o.getLimitPrice());
+            return asks.isEmpty() ? Optional.empty() : Optional.of(asks.firstKey());
         } finally {
             lock.unlock();
         }
@@ -2,10 +2,13 @@ package com.trading.sim.engine;
 
 import com.trading.sim.model.Stock;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * Periodically perturbs stock mark prices with a simple geometric random walk.
@@ -15,11 +18,27 @@ public class PriceEngine {
     private final ScheduledExecutorService scheduler;
     private final Map<String, Stock> stocksBySymbol;
     private final Random rng;
+    private final BiConsumer<String, Double> tickListener;
+    private final Consumer<Map<String, Double>> batchListener;
 
     public PriceEngine(ScheduledExecutorService scheduler, Map<String, Stock> stocksBySymbol, Random rng) {
+        this(scheduler, stocksBySymbol, rng, null);
+    }
+
+    /** @param tickListener notified with (symbol, new mark) after each move; may be null */
+    public PriceEngine(ScheduledExecutorService scheduler, Map<String, Stock> stocksBySymbol, Random rng,
+                       BiConsumer<String, Double> tickListener) {
+        this(scheduler, stocksBySymbol, rng, tickListener, null);
+    }
+
+    /** @param batchListener notified once per tick with every symbol's new mark; may be null */
+    public PriceEngine(ScheduledExecutorService scheduler, Map<String, Stock> stocksBySymbol, Random rng,
+                       BiConsumer<String, Double> tickListener, Consumer<Map<String, Double>> batchListener) {
         this.scheduler = scheduler;
         this.stocksBySymbol = stocksBySymbol;
         this.rng = rng;
+        this.tickListener = tickListener;
+        this.batchListener = batchListener;
     }
 
     public void start(long periodMillis) {
@@ -28,11 +47,15 @@ public class PriceEngine {
 
     private void tickAll() {
         // Per tick, apply a small percentage move around 0, bounded to avoid negative prices.
+        Map<String, Double> batch = batchListener == null ? null : new HashMap<>(stocksBySymbol.size() * 2);
         for (Stock s : stocksBySymbol.values()) {
             double p = s.getMarkPrice();
             double pctMove = rng.nextGaussian() * 0.001; // ~0.1% std dev per tick
             double np = Math.max(0.01, p * (1.0 + pctMove));
             s.setMarkPrice(np);
+            if (tickListener != null) tickListener.accept(s.getTicker(), np);
+            if (batch != null) batch.put(s.getTicker(), np);
         }
+        if (batchListener != null) batchListener.accept(batch);
     }
 }
@@ -0,0 +1,61 @@
+package com.trading.sim.engine;
+
+import com.trading.sim.order.Order;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * All resting orders at one price, in time priority. Backed by an insertion-ordered map so that
+ * removal by id is O(1) and replacing an order (partial fill) keeps its place in the queue.
+ * Not thread-safe: guarded by the owning OrderBook's lock.
+ */
+public class PriceLevel {
+    private final double price;
+    private final LinkedHashMap<Long, Order> orders = new LinkedHashMap<>();
+    private long totalQuantity;
+
+    public PriceLevel(double price) { this.price = price; }
+
+    public double getPrice() { return price; }
+    public long getTotalQuantity() { return totalQuantity; }
+    public int size() { return orders.size(); }
+    public boolean isEmpty() { return orders.isEmpty(); }
+
+    /** Oldest order at this price, or null. */
+    public Order first() {
+        Iterator<Order> it = orders.values().iterator();
+        return it.hasNext() ? it.next() : null;
+    }
+
+    /** Orders in time priority (read-only view). */
+    public Collection<Order> orders() { return Collections.unmodifiableCollection(orders.values()); }
+
+    void append(Order o) {
+        orders.put(o.getId(), o);
+        totalQuantity += o.getQuantity();
+    }
+
+    /** Swaps in a new version of an order already at this level without losing its queue position. */
+    void replace(Order updated) {
+        Order old = orders.replace(updated.getId(), updated);
+        if (old == null) throw new IllegalStateException("Order not at level: " + updated.getId());
+        totalQuantity += updated.getQuantity() - old.getQuantity();
+    }
+
+    /** Swaps in a new version of an order already at this level and moves it to the back of the queue. */
+    void requeue(Order updated) {
+        Order old = orders.remove(updated.getId());
+        if (old == null) throw new IllegalStateException("Order not at level: " + updated.getId());
+        orders.put(updated.getId(), updated);
+        totalQuantity += updated.getQuantity() - old.getQuantity();
+    }
+
+    Order remove(long orderId) {
+        Order o = orders.remove(orderId);
+        if (o != null) totalQuantity -= o.getQuantity();
+        return o;
+    }
+}
@@ -0,0 +1,78 @@
+package com.trading.sim.engine;
+
+import com.trading.sim.order.Order;
+import com.trading.sim.order.Side;
+
+import java.util.*;
+
+/**
+ * Dormant stop orders of one symbol, indexed by trigger price.
+ *
+ * Buy stops fire when the last trade is at or above their stop, sell stops when it is at or below.
+ * Each side is kept sorted in the order a moving price crosses it (buys ascending, sells
+ * descending), so a trade only visits the trigger levels it actually crossed, however many stops
+ * cluster elsewhere. Within one trigger price, stops fire in arrival order.
+ * Not thread-safe: guarded by the owning OrderBook's lock.
+ */
+public class StopBook {
+    private final TreeMap<Double, LinkedHashMap<Long, Order>> buyStops = new TreeMap<>();
+    private final TreeMap<Double, LinkedHashMap<Long, Order>> sellStops = new TreeMap<>(Comparator.reverseOrder());
+    private final Map<Long, Order> byId = new HashMap<>();
+
+    public int size() { return byId.size(); }
+    public boolean isEmpty() { return byId.isEmpty(); }
+    public Order find(long orderId) { return byId.get(orderId); }
+
+    /** True when a stop at this price and side is already crossed by {@code lastPrice}. */
+    public static boolean isTriggeredBy(Order stop, double lastPrice) {
+        if (Double.isNaN(lastPrice)) return false;
+        return stop.getSide() == Side.BUY ? lastPrice >= stop.getStopPrice() : lastPrice <= stop.getStopPrice();
+    }
+
+    public void add(Order stop) {
+        if (!stop.isStop()) throw new IllegalArgumentException("Not a stop order: " + stop);
+        (stop.getSide() == Side.BUY ? buyStops : sellStops)
+                .computeIfAbsent(stop.getStopPrice(), p -> new LinkedHashMap<>())
+                .put(stop.getId(), stop);
+        byId.put(stop.getId(), stop);
+    }
+
+    public Order remove(long orderId) {
+        Order o = byId.remove(orderId);
+        if (o == null) return null;
+        TreeMap<Double, LinkedHashMap<Long, Order>> side = o.getSide() == Side.BUY ? buyStops : sellStops;
+        LinkedHashMap<Long, Order> level = side.get(o.getStopPrice());
+        level.remove(orderId);
+        if (level.isEmpty()) side.remove(o.getStopPrice());
+        return o;
+    }
+
+    /**
+     * Removes every stop crossed by {@code lastPrice} and appends it to {@code out} in firing order:
+     * buy stops lowest trigger first, then sell stops highest trigger first, arrival order within a price.
+     */
+    public void drainTriggered(double lastPrice, List<Order> out) {
+        if (Double.isNaN(lastPrice) || byId.isEmpty()) return;
+        drain(buyStops.headMap(lastPrice, true), out);
+        drain(sellStops.headMap(lastPrice, true), out); // reverse-ordered map: triggers >= lastPrice
+    }
+
+    private void drain(NavigableMap<Double, LinkedHashMap<Long, Order>> crossed, List<Order> out) {
+        if (crossed.isEmpty()) return;
+        for (LinkedHashMap<Long, Order> level : crossed.values()) {
+            for (Order o : level.values()) {
+                byId.remove(o.getId());
+                out.add(o);
+            }
+        }
+        crossed.clear();
+    }
+
+    /** All dormant stops in firing order per side (buys then sells). */
+    public List<Order> orders() {
+        List<Order> out = new ArrayList<>(byId.size());
+        for (LinkedHashMap<Long, Order> level : buyStops.values()) out.addAll(level.values());
+        for (LinkedHashMap<Long, Order> level : sellStops.values()) out.addAll(level.values());
+        return out;
+    }
+}
@@ -0,0 +1,89 @@
+package com.trading.sim.engine;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Hierarchical timing wheel of order ids: four levels of 256 slots, a level-n slot spanning 256^n ticks.
+ *
+ * Scheduling appends the id to one slot; advancing a tick empties one level-0 slot and, every 256
+ * ticks, redistributes one slot of the level above into finer slots. Both are O(1) per timer, with no
+ * task object or heap per timer (slots are packed long arrays). Timers cannot be cancelled: the owner
+ * re-checks each fired id and ignores orders that are already gone. Not thread-safe.
+ */
+public class TimingWheel {
+    private static final int BITS = 8;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long SPAN = 1L << (BITS * LEVELS); // ticks the wheel can hold
+
+    private final long tickMillis;
+    private final long[][] slots = new long[LEVELS * SLOTS][]; // pairs of (id, deadline tick)
+    private final int[] sizes = new int[LEVELS * SLOTS];
+    private long currentTick;
+    private int pending;
+
+    public TimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("Invalid tick: " + tickMillis);
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    public int size() { return pending; }
+
+    /** Fires {@code id} on the first {@link #advance} at or after {@code deadlineMillis} (rounded up to a tick). */
+    public void schedule(long id, long deadlineMillis) {
+        long deadline = Math.max((deadlineMillis + tickMillis - 1) / tickMillis, currentTick + 1);
+        place(id, deadline);
+        pending++;
+    }
+
+    /** Moves time forward to {@code nowMillis}, passing every id whose deadline has been reached to {@code expired}. */
+    public void advance(long nowMillis, LongConsumer expired) {
+        long target = nowMillis / tickMillis;
+        while (currentTick < target) {
+            if (pending == 0) { // nothing to cascade or fire: jump straight there
+                currentTick = target;
+                return;
+            }
+            currentTick++;
+            for (int level = 1; level < LEVELS && (currentTick & ((1L << (BITS * level)) - 1)) == 0; level++) {
+                cascade(level);
+            }
+            int slot = (int) (currentTick & MASK);
+            long[] entries = slots[slot];
+            int n = sizes[slot];
+            sizes[slot] = 0;
+            pending -= n / 2;
+            for (int i = 0; i < n; i += 2) expired.accept(entries[i]);
+        }
+    }
+
+    /** Re-places one slot of a coarser level; its timers now fall within the finer levels' range. */
+    private void cascade(int level) {
+        int slot = level * SLOTS + (int) ((currentTick >>> (BITS * level)) & MASK);
+        int n = sizes[slot];
+        if (n == 0) return;
+        long[] entries = slots[slot];
+        slots[slot] = null; // the slot may be refilled while its old entries are being re-placed
+        sizes[slot] = 0;
+        for (int i = 0; i < n; i += 2) place(entries[i], entries[i + 1]);
+    }
+
+    private void place(long id, long deadline) {
+        long delta = deadline - currentTick;
+        // beyond the wheel's range: park in the farthest top-level slot, re-placed when it cascades
+        long at = delta >= SPAN ? currentTick + SPAN - 1 : deadline;
+        int level = 0;
+        while (level < LEVELS - 1 && at - currentTick >= 1L << (BITS * (level + 1))) level++;
+        int slot = level * SLOTS + (int) ((at >>> (BITS * level)) & MASK);
+        long[] entries = slots[slot];
+        int n = sizes[slot];
+        if (entries == null) entries = slots[slot] = new long[8];
+        else if (n == entries.length) entries = slots[slot] = Arrays.copyOf(entries, n * 2);
+        entries[n] = id;
+        entries[n + 1] = deadline;
+        sizes[slot] = n + 2;
+    }
+}
@@ -0,0 +1,12 @@
+package com.trading.sim.engine;
+
+/**
+ * Session phase of a book. In the call phases (PRE_OPEN, PRE_CLOSE, CLOSED) orders are collected
+ * without matching; leaving PRE_OPEN or PRE_CLOSE runs an uncross at a single clearing price
+ * (the opening and closing auctions). CLOSED keeps collecting for the next day's opening auction.
+ */
+public enum TradingPhase {
+    PRE_OPEN, CONTINUOUS, PRE_CLOSE, CLOSED;
+
+    public boolean isCall() { return this != CONTINUOUS; }
+}
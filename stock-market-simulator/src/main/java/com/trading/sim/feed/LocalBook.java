@@ -0,0 +1,94 @@
+package com.trading.sim.feed;
+
+import com.trading.sim.order.Side;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+
+import static com.trading.sim.feed.MarketDataProtocol.*;
+
+/**
+ * Level-aggregated replica of every book, rebuilt purely from feed messages.
+ * Used by subscribers and by the publisher itself to serve snapshots. Thread-safe.
+ */
+public class LocalBook {
+    private static final class SymbolBook {
+        final TreeMap<Double, long[]> bids = new TreeMap<>(Comparator.reverseOrder()); // {qty, orders}
+        final TreeMap<Double, long[]> asks = new TreeMap<>();
+        double lastTrade = Double.NaN;
+        double mark = Double.NaN;
+    }
+
+    private final Map<String, SymbolBook> books = new HashMap<>();
+
+    /** Applies one message starting at {@code pos} (its type byte). */
+    public synchronized void apply(ByteBuffer b, int pos) {
+        byte type = b.get(pos);
+        SymbolBook sb = books.computeIfAbsent(getSymbol(b, pos + 1), s -> new SymbolBook());
+        switch (type) {
+            case TRADE:
+                sb.lastTrade = b.getDouble(pos + 25);
+                break;
+            case LEVEL:
+                TreeMap<Double, long[]> levels = b.get(pos + 9) == 0 ? sb.bids : sb.asks;
+                double px = b.getDouble(pos + 10);
+                long qty = b.getLong(pos + 18);
+                if (qty == 0) levels.remove(px);
+                else levels.put(px, new long[] { qty, b.getInt(pos + 26) });
+                break;
+            case MARK:
+                sb.mark = b.getDouble(pos + 9);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown market-data message: " + type);
+        }
+    }
+
+    public synchronized void clear() { books.clear(); }
+
+    public synchronized Set<String> symbols() { return new TreeSet<>(books.keySet()); }
+
+    public synchronized OptionalDouble bestBid(String symbol) {
+        SymbolBook sb = books.get(symbol);
+        return sb == null || sb.bids.isEmpty() ? OptionalDouble.empty() : OptionalDouble.of(sb.bids.firstKey());
+    }
+
+    public synchronized OptionalDouble bestAsk(String symbol) {
+        SymbolBook sb = books.get(symbol);
+        return sb == null || sb.asks.isEmpty() ? OptionalDouble.empty() : OptionalDouble.of(sb.asks.firstKey());
+    }
+
+    /** Price to total quantity, best level first. */
+    public synchronized NavigableMap<Double, Long> depth(String symbol, Side side) {
+        Comparator<Double> order = side == Side.BUY ? Comparator.reverseOrder() : Comparator.naturalOrder();
+        TreeMap<Double, Long> out = new TreeMap<>(order);
+        SymbolBook sb = books.get(symbol);
+        if (sb != null) (side == Side.BUY ? sb.bids : sb.asks).forEach((px, v) -> out.put(px, v[0]));
+        return out;
+    }
+
+    /** NaN until a trade has been seen. */
+    public synchronized double lastTradePrice(String symbol) {
+        SymbolBook sb = books.get(symbol);
+        return sb == null ? Double.NaN : sb.lastTrade;
+    }
+
+    /** NaN until a mark has been seen. */
+    public synchronized double markPrice(String symbol) {
+        SymbolBook sb = books.get(symbol);
+        return sb == null ? Double.NaN : sb.mark;
+    }
+
+    /** Encodes the full state as level and mark messages, plus a zero-quantity trade for the last trade price. */
+    synchronized List<byte[]> snapshotMessages() {
+        List<byte[]> out = new ArrayList<>();
+        for (Map.Entry<String, SymbolBook> e : books.entrySet()) {
+            SymbolBook sb = e.getValue();
+            sb.bids.forEach((px, v) -> out.add(MarketDataProtocol.level(e.getKey(), Side.BUY, px, v[0], (int) v[1])));
+            sb.asks.forEach((px, v) -> out.add(MarketDataProtocol.level(e.getKey(), Side.SELL, px, v[0], (int) v[1])));
+            if (!Double.isNaN(sb.mark)) out.add(MarketDataProtocol.mark(e.getKey(), sb.mark));
+            if (!Double.isNaN(sb.lastTrade)) out.add(MarketDataProtocol.trade(e.getKey(), 0, 0, sb.lastTrade));
+        }
+        return out;
+    }
+}
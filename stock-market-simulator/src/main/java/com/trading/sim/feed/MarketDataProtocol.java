@@ -0,0 +1,74 @@
+package com.trading.sim.feed;
+
+import com.trading.sim.order.Side;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ITCH-style sequenced market-data encoding.
+ *
+ * A UDP packet is a header (sequence number of its first message, message count) followed by
+ * messages, each prefixed with its length. A packet with a count of 0 is a heartbeat carrying the
+ * next sequence number, which lets idle subscribers notice lost tail packets.
+ *
+ * Messages (big-endian, symbols as 8-byte space-padded ASCII):
+ *   'T' trade:  symbol, tradeId, qty, price
+ *   'L' level:  symbol, side, price, qty, orderCount   (qty 0 = level removed)
+ *   'P' mark:   symbol, price
+ *
+ * The TCP recovery service answers 'R' fromSeq count (retransmit; reply 'R' count + messages, or
+ * 'X' if no longer held) and 'S' (snapshot; reply lastSeq count + level/mark messages, plus a trade
+ * with tradeId and qty 0 carrying the last trade price of each symbol that has traded).
+ */
+public final class MarketDataProtocol {
+    public static final int HEADER_LEN = 8 + 2;
+    public static final int MAX_PACKET = 1400;
+
+    public static final byte TRADE = 'T';
+    public static final byte LEVEL = 'L';
+    public static final byte MARK = 'P';
+
+    public static final int TRADE_LEN = 1 + 8 + 8 + 8 + 8;
+    public static final int LEVEL_LEN = 1 + 8 + 1 + 8 + 8 + 4;
+    public static final int MARK_LEN = 1 + 8 + 8;
+    public static final int MAX_MESSAGE_LEN = TRADE_LEN;
+
+    public static final byte REQ_RETRANSMIT = 'R';
+    public static final byte REQ_SNAPSHOT = 'S';
+    public static final byte RESP_UNAVAILABLE = 'X';
+
+    private static final int SYMBOL_LEN = 8;
+
+    private MarketDataProtocol() { }
+
+    static byte[] trade(String symbol, long tradeId, long qty, double price) {
+        ByteBuffer b = ByteBuffer.allocate(TRADE_LEN).put(TRADE);
+        putSymbol(b, symbol);
+        return b.putLong(tradeId).putLong(qty).putDouble(price).array();
+    }
+
+    static byte[] level(String symbol, Side side, double price, long qty, int orders) {
+        ByteBuffer b = ByteBuffer.allocate(LEVEL_LEN).put(LEVEL);
+        putSymbol(b, symbol);
+        return b.put((byte) (side == Side.BUY ? 0 : 1)).putDouble(price).putLong(qty).putInt(orders).array();
+    }
+
+    static byte[] mark(String symbol, double price) {
+        ByteBuffer b = ByteBuffer.allocate(MARK_LEN).put(MARK);
+        putSymbol(b, symbol);
+        return b.putDouble(price).array();
+    }
+
+    private static void putSymbol(ByteBuffer b, String symbol) {
+        for (int i = 0; i < SYMBOL_LEN; i++) b.put((byte) (i < symbol.length() ? symbol.charAt(i) : ' '));
+    }
+
+    static String getSymbol(ByteBuffer b, int index) {
+        int end = SYMBOL_LEN;
+        while (end > 0 && b.get(index + end - 1) == ' ') end--;
+        byte[] bytes = new byte[end];
+        b.get(index, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
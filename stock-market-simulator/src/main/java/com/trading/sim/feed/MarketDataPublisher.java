@@ -0,0 +1,231 @@
+package com.trading.sim.feed;
+
+import com.trading.sim.engine.OrderBook;
+import com.trading.sim.engine.PriceLevel;
+import com.trading.sim.market.Market;
+import com.trading.sim.order.Side;
+import com.trading.sim.order.Trade;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.trading.sim.feed.MarketDataProtocol.*;
+
+/**
+ * Publishes trades, level changes and mark ticks as sequenced UDP packets.
+ *
+ * Market threads only encode a message and enqueue it; a single publisher thread assigns sequence
+ * numbers, packs several messages per datagram, keeps a ring of recent messages for retransmission
+ * and maintains a {@link LocalBook} replica for snapshots. A TCP recovery service serves gap fills
+ * and snapshots from that state, so subscribers never touch the matching threads.
+ */
+public class MarketDataPublisher implements AutoCloseable {
+    private static final int RING_SIZE = 1 << 18; // messages kept for retransmission
+    private static final int SLOT = 64;
+    private static final long HEARTBEAT_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Queue<byte[]> outbound = new ConcurrentLinkedQueue<>();
+    private final List<InetSocketAddress> destinations;
+    private final DatagramChannel udp;
+    private final ServerSocket recovery;
+    private final ByteBuffer packet = ByteBuffer.allocateDirect(MAX_PACKET);
+    private final LocalBook replica = new LocalBook();
+
+    // guarded by 'this': retransmission ring and sequence state shared with the recovery threads
+    private final byte[] ring = new byte[RING_SIZE * SLOT];
+    private long nextSeq = 1;
+
+    private final Thread publisher;
+    private volatile boolean running = true;
+
+    /**
+     * @param destinations UDP targets: loopback unicast ports or a multicast group
+     * @param recoveryPort TCP port of the retransmission/snapshot service (0 = ephemeral)
+     */
+    public MarketDataPublisher(Market market, List<InetSocketAddress> destinations, int recoveryPort) throws IOException {
+        this.destinations = destinations;
+        this.udp = DatagramChannel.open();
+        this.recovery = new ServerSocket(recoveryPort);
+
+        market.addTradeListener(this::onTrade);
+        market.addBookListener((sym, side, px, qty, orders) -> outbound.add(MarketDataProtocol.level(sym, side, px, qty, orders)));
+        market.addPriceListener((sym, px) -> outbound.add(MarketDataProtocol.mark(sym, px)));
+        seedFrom(market); // after subscribing, so no change falls between the seed and the live stream
+
+        this.publisher = new Thread(this::publishLoop, "md-publisher");
+        publisher.setDaemon(true);
+        publisher.start();
+
+        Thread acceptor = new Thread(this::acceptLoop, "md-recovery");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int recoveryPort() { return recovery.getLocalPort(); }
+
+    private void onTrade(Trade t) {
+        outbound.add(MarketDataProtocol.trade(t.getSymbol(), t.getId(), t.getQuantity(), t.getPrice()));
+    }
+
+    /** Queues the current book state so the feed starts from what is already resting. */
+    private void seedFrom(Market market) {
+        for (String sym : market.symbols()) {
+            outbound.add(MarketDataProtocol.mark(sym, market.lastPrice(sym)));
+            OrderBook book = market.book(sym);
+            book.lock().lock();
+            try {
+                for (PriceLevel l : book.bids().values()) outbound.add(MarketDataProtocol.level(sym, Side.BUY, l.getPrice(), l.getTotalQuantity(), l.size()));
+                for (PriceLevel l : book.asks().values()) outbound.add(MarketDataProtocol.level(sym, Side.SELL, l.getPrice(), l.getTotalQuantity(), l.size()));
+            } finally {
+                book.lock().unlock();
+            }
+        }
+    }
+
+    private void publishLoop() {
+        long lastSend = System.nanoTime();
+        while (running) {
+            byte[] msg = outbound.poll();
+            if (msg == null) {
+                if (System.nanoTime() - lastSend > HEARTBEAT_NANOS) {
+                    synchronized (this) { startPacket(nextSeq); }
+                    send();
+                    lastSend = System.nanoTime();
+                }
+                LockSupport.parkNanos(50_000);
+                continue;
+            }
+
+            synchronized (this) {
+                startPacket(nextSeq);
+                while (msg != null) {
+                    sequence(msg);
+                    // only take another message while any message type still fits
+                    msg = packet.remaining() >= 2 + MAX_MESSAGE_LEN ? outbound.poll() : null;
+                }
+            }
+            send();
+            lastSend = System.nanoTime();
+        }
+    }
+
+    private void startPacket(long firstSeq) {
+        packet.clear();
+        packet.putLong(firstSeq).putShort((short) 0);
+    }
+
+    /** Assigns the next sequence number: appends to the packet, the ring and the replica. */
+    private void sequence(byte[] msg) {
+        int slot = (int) (nextSeq & (RING_SIZE - 1)) * SLOT;
+        ring[slot] = (byte) msg.length;
+        System.arraycopy(msg, 0, ring, slot + 1, msg.length);
+        replica.apply(ByteBuffer.wrap(msg), 0);
+        nextSeq++;
+
+        packet.putShort((short) msg.length).put(msg);
+        packet.putShort(8, (short) (packet.getShort(8) + 1));
+    }
+
+    private void send() {
+        packet.flip();
+        for (InetSocketAddress dest : destinations) {
+            try {
+                udp.send(packet.duplicate(), dest);
+            } catch (IOException e) {
+                if (running) System.err.println("[MD] send to " + dest + " failed: " + e);
+            }
+        }
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket s = recovery.accept();
+                Thread t = new Thread(() -> serveRecovery(s), "md-recovery-conn");
+                t.setDaemon(true);
+                t.start();
+            } catch (IOException e) {
+                if (running) System.err.println("[MD] recovery accept failed: " + e);
+            }
+        }
+    }
+
+    private void serveRecovery(Socket s) {
+        try (Socket sock = s;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(sock.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(sock.getOutputStream()))) {
+            while (true) {
+                byte req = in.readByte();
+                if (req == REQ_RETRANSMIT) retransmit(in.readLong(), in.readInt(), out);
+                else if (req == REQ_SNAPSHOT) snapshot(out);
+                else return;
+                out.flush();
+            }
+        } catch (EOFException e) {
+            // subscriber disconnected
+        } catch (IOException e) {
+            if (running) System.err.println("[MD] recovery connection failed: " + e);
+        }
+    }
+
+    private void retransmit(long fromSeq, int count, DataOutputStream out) throws IOException {
+        byte[] copy;
+        synchronized (this) {
+            long oldest = Math.max(1, nextSeq - RING_SIZE);
+            if (fromSeq < oldest || count < 0 || fromSeq + count > nextSeq) {
+                out.writeByte(RESP_UNAVAILABLE);
+                return;
+            }
+            copy = new byte[count * SLOT];
+            for (int i = 0; i < count; i++) {
+                int slot = (int) ((fromSeq + i) & (RING_SIZE - 1)) * SLOT;
+                System.arraycopy(ring, slot, copy, i * SLOT, SLOT);
+            }
+        }
+        out.writeByte(REQ_RETRANSMIT);
+        out.writeInt(count);
+        for (int i = 0; i < count; i++) {
+            int len = copy[i * SLOT];
+            out.writeShort(len);
+            out.write(copy, i * SLOT + 1, len);
+        }
+    }
+
+    private void snapshot(DataOutputStream out) throws IOException {
+        long lastSeq;
+        List<byte[]> msgs;
+        synchronized (this) {
+            lastSeq = nextSeq - 1;
+            msgs = replica.snapshotMessages();
+        }
+        out.writeLong(lastSeq);
+        out.writeInt(msgs.size());
+        for (byte[] m : msgs) {
+            out.writeShort(m.length);
+            out.write(m);
+        }
+    }
+
+    @Override public void close() throws IOException {
+        running = false;
+        publisher.interrupt();
+        recovery.close();
+        udp.close();
+    }
+
+    /** Convenience for wiring: local subscribers on the given UDP ports, recovery on an ephemeral port. */
+    public static MarketDataPublisher loopback(Market market, int... udpPorts) throws IOException {
+        InetSocketAddress[] dests = new InetSocketAddress[udpPorts.length];
+        for (int i = 0; i < udpPorts.length; i++) dests[i] = new InetSocketAddress("127.0.0.1", udpPorts[i]);
+        return new MarketDataPublisher(market, List.of(dests), 0);
+    }
+}
@@ -0,0 +1,146 @@
+package com.trading.sim.feed;
+
+import java.io.*;
+import java.net.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.trading.sim.feed.MarketDataProtocol.*;
+
+/**
+ * Receives the UDP feed and rebuilds the books in a {@link LocalBook}.
+ *
+ * Packets are applied strictly in sequence. On a gap the missing range is fetched from the
+ * publisher's TCP recovery service; if it is no longer held (or on first start) a snapshot is
+ * loaded instead and anything it already covers is skipped.
+ */
+public class MarketDataSubscriber implements AutoCloseable {
+    private final DatagramChannel udp;
+    private final InetSocketAddress recoveryAddress;
+    private final LocalBook book = new LocalBook();
+    private final ByteBuffer packet = ByteBuffer.allocateDirect(MAX_PACKET);
+    private final Thread receiver;
+    private final AtomicLong messages = new AtomicLong();
+    private final AtomicLong retransmitted = new AtomicLong();
+    private final AtomicLong snapshots = new AtomicLong();
+
+    private Socket recoverySocket;
+    private DataInputStream recoveryIn;
+    private DataOutputStream recoveryOut;
+    private long expectedSeq; // 0 until the first snapshot
+    private volatile boolean running = true;
+
+    /**
+     * @param feed     local UDP port to listen on (any address), or a multicast group and port to join
+     * @param recovery publisher's recovery service
+     */
+    public MarketDataSubscriber(InetSocketAddress feed, InetSocketAddress recovery) throws IOException {
+        this.recoveryAddress = recovery;
+        if (feed.getAddress() != null && feed.getAddress().isMulticastAddress()) {
+            udp = DatagramChannel.open(StandardProtocolFamily.INET)
+                    .setOption(StandardSocketOptions.SO_REUSEADDR, true)
+                    .bind(new InetSocketAddress(feed.getPort()));
+            NetworkInterface nif = NetworkInterface.getByInetAddress(InetAddress.getLoopbackAddress());
+            udp.join(feed.getAddress(), nif);
+        } else {
+            udp = DatagramChannel.open().bind(new InetSocketAddress(feed.getPort()));
+        }
+        udp.setOption(StandardSocketOptions.SO_RCVBUF, 4 << 20); // absorb bursts; the OS may cap this
+        this.receiver = new Thread(this::receiveLoop, "md-subscriber");
+        receiver.setDaemon(true);
+        receiver.start();
+    }
+
+    public LocalBook book() { return book; }
+    public long messagesApplied() { return messages.get(); }
+    public long messagesRetransmitted() { return retransmitted.get(); }
+    public long snapshotsLoaded() { return snapshots.get(); }
+
+    private void receiveLoop() {
+        try {
+            while (running) {
+                packet.clear();
+                udp.receive(packet);
+                packet.flip();
+                onPacket();
+            }
+        } catch (ClosedChannelException e) {
+            // closed
+        } catch (IOException e) {
+            if (running) System.err.println("[MD] subscriber failed: " + e);
+        }
+    }
+
+    private void onPacket() throws IOException {
+        if (packet.remaining() < HEADER_LEN) return;
+        long seq = packet.getLong(0);
+        int count = packet.getShort(8) & 0xffff;
+
+        if (expectedSeq == 0) loadSnapshot();
+        if (seq > expectedSeq) recover(expectedSeq, seq - expectedSeq);
+
+        int pos = HEADER_LEN;
+        for (int i = 0; i < count; i++, seq++) {
+            int len = packet.getShort(pos);
+            if (seq >= expectedSeq) {
+                book.apply(packet, pos + 2);
+                messages.incrementAndGet();
+                expectedSeq = seq + 1;
+            }
+            pos += 2 + len;
+        }
+    }
+
+    /** Fetches [from, from + count) from the ring, falling back to a snapshot if it is gone. */
+    private void recover(long from, long count) throws IOException {
+        connectRecovery();
+        recoveryOut.writeByte(REQ_RETRANSMIT);
+        recoveryOut.writeLong(from);
+        recoveryOut.writeInt((int) Math.min(count, Integer.MAX_VALUE));
+        recoveryOut.flush();
+        if (recoveryIn.readByte() == RESP_UNAVAILABLE) {
+            loadSnapshot();
+            return;
+        }
+        int n = recoveryIn.readInt();
+        for (int i = 0; i < n; i++) {
+            book.apply(readMessage(), 0);
+            retransmitted.incrementAndGet();
+        }
+        expectedSeq = from + n;
+    }
+
+    private void loadSnapshot() throws IOException {
+        connectRecovery();
+        recoveryOut.writeByte(REQ_SNAPSHOT);
+        recoveryOut.flush();
+        long lastSeq = recoveryIn.readLong();
+        int n = recoveryIn.readInt();
+        book.clear();
+        for (int i = 0; i < n; i++) book.apply(readMessage(), 0);
+        expectedSeq = lastSeq + 1;
+        snapshots.incrementAndGet();
+    }
+
+    private ByteBuffer readMessage() throws IOException {
+        byte[] m = new byte[recoveryIn.readShort()];
+        recoveryIn.readFully(m);
+        return ByteBuffer.wrap(m);
+    }
+
+    private void connectRecovery() throws IOException {
+        if (recoverySocket != null && !recoverySocket.isClosed()) return;
+        recoverySocket = new Socket(recoveryAddress.getAddress(), recoveryAddress.getPort());
+        recoverySocket.setTcpNoDelay(true);
+        recoveryIn = new DataInputStream(new BufferedInputStream(recoverySocket.getInputStream()));
+        recoveryOut = new DataOutputStream(new BufferedOutputStream(recoverySocket.getOutputStream()));
+    }
+
+    @Override public void close() throws IOException {
+        running = false;
+        udp.close();
+        if (recoverySocket != null) recoverySocket.close();
+    }
+}
@@ -0,0 +1,28 @@
+package com.trading.sim.gateway;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Pool of equally sized direct buffers. Sessions borrow one read and one write buffer for their
+ * lifetime so that socket I/O never copies through the heap and steady-state churn allocates nothing.
+ */
+public class BufferPool {
+    private final int bufferSize;
+    private final ConcurrentLinkedQueue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+
+    public BufferPool(int bufferSize, int preallocate) {
+        this.bufferSize = bufferSize;
+        for (int i = 0; i < preallocate; i++) free.add(ByteBuffer.allocateDirect(bufferSize));
+    }
+
+    public ByteBuffer acquire() {
+        ByteBuffer b = free.poll();
+        return b != null ? b : ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    public void release(ByteBuffer b) {
+        b.clear();
+        free.offer(b);
+    }
+}
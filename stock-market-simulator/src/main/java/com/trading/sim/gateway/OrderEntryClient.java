@@ -0,0 +1,170 @@
+package com.trading.sim.gateway;
+
+import com.trading.sim.order.Side;
+import com.trading.sim.order.TimeInForce;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.trading.sim.gateway.OrderEntryProtocol.*;
+
+/**
+ * Blocking client for {@link OrderEntryServer}, for tests and out-of-process load generation.
+ * Sends are synchronized and written straight from a direct buffer; a reader thread decodes
+ * responses and hands them to the {@link Listener}.
+ */
+public class OrderEntryClient implements AutoCloseable {
+
+    /** Callbacks run on the client's reader thread. */
+    public interface Listener {
+        default void onAck(long clOrdId, long orderId) { }
+        default void onReject(long clOrdId, byte reason) { }
+        default void onFill(long orderId, long tradeId, String symbol, Side side, long qty, double price) { }
+        default void onCancelled(long clOrdId, long orderId, long qty, byte reason) { }
+    }
+
+    private final SocketChannel ch;
+    private final Listener listener;
+    private final ByteBuffer out = ByteBuffer.allocateDirect(256);
+    private final ByteBuffer in = ByteBuffer.allocateDirect(64 * 1024);
+    private final CountDownLatch loggedIn = new CountDownLatch(1);
+    private final Thread reader;
+    private volatile byte loginReject = -1;
+    private volatile boolean loggedInOk; // set by LOGIN_ACK; the latch also opens on reject or disconnect
+    private long seq = 1;
+    private long nextClOrdId = 1;
+
+    private OrderEntryClient(SocketChannel ch, Listener listener) {
+        this.ch = ch;
+        this.listener = listener;
+        this.reader = new Thread(this::readLoop, "oe-client-reader");
+        reader.setDaemon(true);
+    }
+
+    /** Connects and logs in; blocks until the server accepts or rejects the login. */
+    public static OrderEntryClient connect(InetSocketAddress server, String traderId, Listener listener) throws IOException {
+        SocketChannel ch = SocketChannel.open(server);
+        ch.socket().setTcpNoDelay(true);
+        OrderEntryClient c = new OrderEntryClient(ch, listener);
+        c.reader.start();
+        synchronized (c) {
+            c.out.clear();
+            c.out.put(LOGIN).putLong(c.seq++);
+            putAscii(c.out, traderId, TRADER_LEN);
+            c.send();
+        }
+        try {
+            if (!c.loggedIn.await(10, TimeUnit.SECONDS)) {
+                c.close();
+                throw new IOException("Login timed out");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            c.close();
+            throw new IOException("Interrupted during login", e);
+        }
+        if (!c.loggedInOk) {
+            c.close();
+            throw new IOException(c.loginReject >= 0 ? "Login rejected, reason " + c.loginReject : "Connection closed during login");
+        }
+        return c;
+    }
+
+    /** Returns the client order id used in the ACK/REJECT for this order. */
+    public synchronized long sendLimit(String symbol, Side side, long qty, double price) throws IOException {
+        return sendOrder(symbol, side, TYPE_LIMIT, qty, price);
+    }
+
+    /** Limit order with IOC or FOK time-in-force; any unfilled quantity comes back as CANCELLED. */
+    public synchronized long sendLimit(String symbol, Side side, long qty, double price, TimeInForce tif) throws IOException {
+        if (tif != TimeInForce.IOC && tif != TimeInForce.FOK && tif != TimeInForce.GTC) {
+            throw new IllegalArgumentException("Time-in-force not supported by the gateway: " + tif);
+        }
+        byte type = tif == TimeInForce.IOC ? TYPE_LIMIT_IOC : tif == TimeInForce.FOK ? TYPE_LIMIT_FOK : TYPE_LIMIT;
+        return sendOrder(symbol, side, type, qty, price);
+    }
+
+    public synchronized long sendMarket(String symbol, Side side, long qty) throws IOException {
+        return sendOrder(symbol, side, TYPE_MARKET, qty, 0);
+    }
+
+    public synchronized long cancel(String symbol, long orderId) throws IOException {
+        long clOrdId = nextClOrdId++;
+        out.clear();
+        out.put(CANCEL).putLong(seq++).putLong(clOrdId).putLong(orderId);
+        putAscii(out, symbol, SYMBOL_LEN);
+        send();
+        return clOrdId;
+    }
+
+    private long sendOrder(String symbol, Side side, byte type, long qty, double price) throws IOException {
+        long clOrdId = nextClOrdId++;
+        out.clear();
+        out.put(NEW_ORDER).putLong(seq++).putLong(clOrdId);
+        putAscii(out, symbol, SYMBOL_LEN);
+        out.put(side == Side.BUY ? SIDE_BUY : SIDE_SELL).put(type).putLong(qty).putDouble(price);
+        send();
+        return clOrdId;
+    }
+
+    private void send() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) ch.write(out);
+    }
+
+    private void readLoop() {
+        try {
+            while (ch.read(in) >= 0) {
+                in.flip();
+                while (in.remaining() > 0) {
+                    int pos = in.position();
+                    int len = length(in.get(pos));
+                    if (len < 0) throw new IOException("Unknown message type " + in.get(pos));
+                    if (in.remaining() < len) break;
+                    dispatch(pos);
+                    in.position(pos + len);
+                }
+                in.compact();
+            }
+        } catch (IOException e) {
+            if (ch.isOpen()) System.err.println("[CLIENT] connection failed: " + e);
+        } finally {
+            loggedIn.countDown();
+        }
+    }
+
+    private void dispatch(int pos) {
+        switch (in.get(pos)) {
+            case LOGIN_ACK:
+                loggedInOk = true;
+                loggedIn.countDown();
+                break;
+            case ACK:
+                listener.onAck(in.getLong(pos + 9), in.getLong(pos + 17));
+                break;
+            case REJECT:
+                if (loggedIn.getCount() > 0) {
+                    loginReject = in.get(pos + 17);
+                    loggedIn.countDown();
+                } else {
+                    listener.onReject(in.getLong(pos + 9), in.get(pos + 17));
+                }
+                break;
+            case FILL:
+                listener.onFill(in.getLong(pos + 9), in.getLong(pos + 17), getAscii(in, pos + 25, SYMBOL_LEN),
+                        in.get(pos + 33) == SIDE_BUY ? Side.BUY : Side.SELL, in.getLong(pos + 34), in.getDouble(pos + 42));
+                break;
+            case CANCELLED:
+                listener.onCancelled(in.getLong(pos + 9), in.getLong(pos + 17), in.getLong(pos + 25), in.get(pos + 33));
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override public void close() throws IOException { ch.close(); }
+}
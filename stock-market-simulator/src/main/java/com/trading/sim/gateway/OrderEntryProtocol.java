@@ -0,0 +1,92 @@
+package com.trading.sim.gateway;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fixed-length binary order-entry protocol. Every message starts with a one-byte type followed by
+ * an 8-byte sequence number; the type alone determines the message length, so frames need no
+ * length prefix. Integers are big-endian, prices are IEEE-754 doubles, symbols and trader ids are
+ * space-padded ASCII.
+ *
+ * Inbound (client to server) sequence numbers start at 1 per session and must be contiguous.
+ */
+public final class OrderEntryProtocol {
+    // client -> server
+    public static final byte LOGIN = 'L';      // seq, traderId[16]
+    public static final byte NEW_ORDER = 'O';  // seq, clOrdId, symbol[8], side, type, qty, price
+    public static final byte CANCEL = 'X';     // seq, clOrdId, orderId, symbol[8]
+    // server -> client
+    public static final byte LOGIN_ACK = 'l';  // seq, nextExpectedSeq
+    public static final byte ACK = 'a';        // seq, clOrdId, orderId
+    public static final byte REJECT = 'r';     // seq, clOrdId, reason
+    public static final byte FILL = 'f';       // seq, orderId, tradeId, symbol[8], side, qty, price
+    public static final byte CANCELLED = 'c';  // seq, clOrdId, orderId, cancelledQty, reason
+
+    public static final int SYMBOL_LEN = 8;
+    public static final int TRADER_LEN = 16;
+
+    public static final int LOGIN_LEN = 1 + 8 + TRADER_LEN;
+    public static final int NEW_ORDER_LEN = 1 + 8 + 8 + SYMBOL_LEN + 1 + 1 + 8 + 8;
+    public static final int CANCEL_LEN = 1 + 8 + 8 + 8 + SYMBOL_LEN;
+    public static final int LOGIN_ACK_LEN = 1 + 8 + 8;
+    public static final int ACK_LEN = 1 + 8 + 8 + 8;
+    public static final int REJECT_LEN = 1 + 8 + 8 + 1;
+    public static final int FILL_LEN = 1 + 8 + 8 + 8 + SYMBOL_LEN + 1 + 8 + 8;
+    public static final int CANCELLED_LEN = 1 + 8 + 8 + 8 + 8 + 1;
+
+    // reject / cancel reasons
+    public static final byte REASON_USER = 0;
+    public static final byte REASON_NOT_LOGGED_IN = 1;
+    public static final byte REASON_SEQUENCE_GAP = 2;
+    public static final byte REASON_UNKNOWN_SYMBOL = 3;
+    public static final byte REASON_INVALID_ORDER = 4;
+    public static final byte REASON_UNKNOWN_ORDER = 5;
+    public static final byte REASON_DUPLICATE_LOGIN = 6;
+    public static final byte REASON_UNFILLED = 7; // unfilled remainder of a MARKET, IOC or FOK order
+    public static final byte REASON_EXPIRED = 8;  // unsolicited (clOrdId 0): GTD order reached its expiry
+
+    // side / order type encodings
+    public static final byte SIDE_BUY = 0;
+    public static final byte SIDE_SELL = 1;
+    public static final byte TYPE_MARKET = 0;
+    public static final byte TYPE_LIMIT = 1;
+    public static final byte TYPE_LIMIT_IOC = 2;
+    public static final byte TYPE_LIMIT_FOK = 3;
+
+    private OrderEntryProtocol() { }
+
+    /** Message length for a type byte, or -1 if the type is unknown. */
+    public static int length(byte type) {
+        switch (type) {
+            case LOGIN: return LOGIN_LEN;
+            case NEW_ORDER: return NEW_ORDER_LEN;
+            case CANCEL: return CANCEL_LEN;
+            case LOGIN_ACK: return LOGIN_ACK_LEN;
+            case ACK: return ACK_LEN;
+            case REJECT: return REJECT_LEN;
+            case FILL: return FILL_LEN;
+            case CANCELLED: return CANCELLED_LEN;
+            default: return -1;
+        }
+    }
+
+    /** Writes {@code s} as fixed-width space-padded ASCII at the buffer's position. */
+    public static void putAscii(ByteBuffer buf, String s, int width) {
+        int n = Math.min(s.length(), width);
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            buf.put((byte) (c < 128 ? c : '?'));
+        }
+        for (int i = n; i < width; i++) buf.put((byte) ' ');
+    }
+
+    /** Reads a fixed-width space-padded ASCII field at an absolute index. */
+    public static String getAscii(ByteBuffer buf, int index, int width) {
+        int end = width;
+        while (end > 0 && buf.get(index + end - 1) == ' ') end--;
+        byte[] bytes = new byte[end];
+        buf.get(index, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,382 @@
+package com.trading.sim.gateway;
+
+import com.trading.sim.market.Market;
+import com.trading.sim.model.Company;
+import com.trading.sim.order.Order;
+import com.trading.sim.order.Side;
+import com.trading.sim.order.TimeInForce;
+import com.trading.sim.order.Trade;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.trading.sim.gateway.OrderEntryProtocol.*;
+
+/**
+ * Non-blocking TCP order-entry gateway in front of a {@link Market}.
+ *
+ * An acceptor thread hands new connections round-robin to a small set of selector loops; each
+ * session is owned by one loop for its lifetime. Sessions read and write through pooled direct
+ * buffers and messages are decoded in place. Orders are submitted synchronously on the loop thread.
+ * Fills are routed through a trade listener to the sessions of both counterparties, so a passive
+ * order's owner hears about its fill even though another session caused it.
+ */
+public class OrderEntryServer implements AutoCloseable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Market market;
+    private final ServerSocketChannel serverChannel;
+    private final IoLoop[] loops;
+    private final BufferPool pool;
+    private final Map<String, Session> sessionsByTrader = new ConcurrentHashMap<>();
+    private final Thread acceptor;
+    private volatile boolean running = true;
+
+    public OrderEntryServer(Market market, InetSocketAddress bind, int ioThreads) throws IOException {
+        this.market = market;
+        this.pool = new BufferPool(BUFFER_SIZE, 2 * ioThreads * 16);
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(bind);
+
+        this.loops = new IoLoop[ioThreads];
+        for (int i = 0; i < ioThreads; i++) {
+            loops[i] = new IoLoop(i);
+            loops[i].thread.start();
+        }
+        market.addTradeListener(this::onTrade);
+        market.addExpiryListener(this::onExpired);
+
+        this.acceptor = new Thread(this::acceptLoop, "oe-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int port() throws IOException { return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort(); }
+
+    private void acceptLoop() {
+        int next = 0;
+        while (running) {
+            try {
+                SocketChannel ch = serverChannel.accept();
+                ch.configureBlocking(false);
+                ch.socket().setTcpNoDelay(true);
+                loops[next].register(ch);
+                next = (next + 1) % loops.length;
+            } catch (IOException e) {
+                if (running) System.err.println("[GATEWAY] accept failed: " + e);
+            }
+        }
+    }
+
+    private void onTrade(Trade t) {
+        Session buyer = sessionsByTrader.get(t.getBuyTraderId());
+        if (buyer != null) buyer.sendFill(t, t.getBuyOrderId(), Side.BUY);
+        Session seller = sessionsByTrader.get(t.getSellTraderId());
+        if (seller != null) seller.sendFill(t, t.getSellOrderId(), Side.SELL);
+    }
+
+    private void onExpired(Order o) {
+        Session owner = sessionsByTrader.get(o.getTraderId());
+        if (owner != null) owner.sendCancelled(0, o.getId(), o.getQuantity(), REASON_EXPIRED);
+    }
+
+    /** Standalone gateway over the demo market. Usage: [--port 9000] [--io-threads 2] */
+    public static void main(String[] args) throws Exception {
+        int port = 9000, ioThreads = 2;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--port": port = Integer.parseInt(args[i + 1]); break;
+                case "--io-threads": ioThreads = Integer.parseInt(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        try (Market market = new Market(new Random(42))) {
+            market.listCompany(new Company("Acme Robotics", "ACME", 100.00, 0.25));
+            market.listCompany(new Company("Nimbus Cloud", "NIMB", 55.50, 0.30));
+            market.listCompany(new Company("Solaris Energy", "SOLR", 22.15, 0.40));
+            market.start();
+            try (OrderEntryServer server = new OrderEntryServer(market, new InetSocketAddress(port), ioThreads)) {
+                System.out.printf("[GATEWAY] listening on port %d with %d io threads%n", server.port(), ioThreads);
+                new CountDownLatch(1).await(); // run until killed
+            }
+        }
+    }
+
+    @Override public void close() throws IOException {
+        running = false;
+        serverChannel.close();
+        for (IoLoop loop : loops) {
+            loop.thread.interrupt();
+            loop.selector.wakeup();
+        }
+    }
+
+    /** One selector thread multiplexing many sessions. */
+    private final class IoLoop implements Runnable {
+        private final Selector selector;
+        private final Thread thread;
+        private final Queue<SocketChannel> pending = new ConcurrentLinkedQueue<>();
+        private final Queue<Session> dirty = new ConcurrentLinkedQueue<>();
+
+        IoLoop(int index) throws IOException {
+            this.selector = Selector.open();
+            this.thread = new Thread(this, "oe-io-" + index);
+            thread.setDaemon(true);
+        }
+
+        void register(SocketChannel ch) {
+            pending.add(ch);
+            selector.wakeup();
+        }
+
+        /** Queues a session for flushing; wakes the selector when called from another thread. */
+        void markDirty(Session s) {
+            if (s.dirty.compareAndSet(false, true)) {
+                dirty.add(s);
+                if (Thread.currentThread() != thread) selector.wakeup();
+            }
+        }
+
+        @Override public void run() {
+            try {
+                while (running) {
+                    selector.select();
+                    SocketChannel ch;
+                    while ((ch = pending.poll()) != null) {
+                        Session s = new Session(this, ch);
+                        s.key = ch.register(selector, SelectionKey.OP_READ, s);
+                    }
+
+                    Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                    while (it.hasNext()) {
+                        SelectionKey key = it.next();
+                        it.remove();
+                        Session s = (Session) key.attachment();
+                        if (!key.isValid()) continue;
+                        try {
+                            if (key.isReadable()) s.onReadable();
+                            if (key.isValid() && key.isWritable()) s.flush();
+                        } catch (RuntimeException e) {
+                            s.fail(e);
+                        }
+                    }
+
+                    Session s;
+                    while ((s = dirty.poll()) != null) {
+                        s.dirty.set(false);
+                        try {
+                            s.flush();
+                        } catch (RuntimeException e) {
+                            s.fail(e);
+                        }
+                    }
+                }
+            } catch (IOException | ClosedSelectorException e) {
+                if (running) System.err.println("[GATEWAY] io loop failed: " + e);
+            } finally {
+                for (SelectionKey key : selector.keys()) {
+                    if (key.attachment() instanceof Session) ((Session) key.attachment()).close();
+                }
+                try { selector.close(); } catch (IOException ignored) { }
+            }
+        }
+    }
+
+    /**
+     * One client connection. Reads happen on the owning loop only; the write buffer is shared with
+     * other loops delivering passive fills, so encoding into it is synchronized.
+     */
+    private final class Session {
+        private final IoLoop loop;
+        private final SocketChannel ch;
+        private final ByteBuffer in;
+        private final ByteBuffer out;
+        private final AtomicBoolean dirty = new AtomicBoolean();
+        private SelectionKey key;
+        private String traderId;
+        private long expectedSeq = 1;
+        private long outSeq = 1;
+        private boolean closed;
+        private boolean closeRequested;
+
+        Session(IoLoop loop, SocketChannel ch) {
+            this.loop = loop;
+            this.ch = ch;
+            this.in = pool.acquire();
+            this.out = pool.acquire();
+        }
+
+        void onReadable() {
+            int n;
+            try {
+                n = ch.read(in);
+            } catch (IOException e) {
+                n = -1;
+            }
+            if (n < 0) { close(); return; }
+
+            in.flip();
+            while (in.remaining() > 0) {
+                int pos = in.position();
+                byte type = in.get(pos);
+                int len = length(type);
+                if (len < 0 || type == LOGIN_ACK || type == ACK || type == REJECT || type == FILL || type == CANCELLED) {
+                    close(); // garbage or server-side message: drop the connection
+                    return;
+                }
+                if (in.remaining() < len) break;
+                handle(type, pos);
+                if (closed) return;
+                in.position(pos + len);
+            }
+            in.compact();
+            flush();
+        }
+
+        private void handle(byte type, int pos) {
+            long seq = in.getLong(pos + 1);
+            if (type == LOGIN) {
+                onLogin(seq, getAscii(in, pos + 9, TRADER_LEN));
+                return;
+            }
+            long clOrdId = in.getLong(pos + 9);
+            if (traderId == null) { sendReject(clOrdId, REASON_NOT_LOGGED_IN); return; }
+            if (seq != expectedSeq) { sendReject(clOrdId, REASON_SEQUENCE_GAP); return; }
+            expectedSeq++;
+
+            if (type == NEW_ORDER) {
+                String symbol = getAscii(in, pos + 17, SYMBOL_LEN);
+                byte side = in.get(pos + 25);
+                byte ordType = in.get(pos + 26);
+                long qty = in.getLong(pos + 27);
+                double price = in.getDouble(pos + 35);
+                onNewOrder(clOrdId, symbol, side, ordType, qty, price);
+            } else {
+                long orderId = in.getLong(pos + 17);
+                String symbol = getAscii(in, pos + 25, SYMBOL_LEN);
+                onCancel(clOrdId, orderId, symbol);
+            }
+        }
+
+        private void onLogin(long seq, String id) {
+            if (traderId != null || seq != expectedSeq || id.isEmpty()) { sendReject(0, REASON_INVALID_ORDER); return; }
+            if (sessionsByTrader.putIfAbsent(id, this) != null) {
+                sendReject(0, REASON_DUPLICATE_LOGIN);
+                closeRequested = true;
+                return;
+            }
+            traderId = id;
+            expectedSeq++;
+            synchronized (this) {
+                if (!reserve(LOGIN_ACK_LEN)) return;
+                out.put(LOGIN_ACK).putLong(outSeq++).putLong(expectedSeq);
+            }
+        }
+
+        private void onNewOrder(long clOrdId, String symbol, byte side, byte ordType, long qty, double price) {
+            boolean limit = ordType == TYPE_LIMIT || ordType == TYPE_LIMIT_IOC || ordType == TYPE_LIMIT_FOK;
+            if (qty <= 0 || (side != SIDE_BUY && side != SIDE_SELL) || (ordType != TYPE_MARKET && !limit)
+                    || (limit && !(price > 0 && Double.isFinite(price)))) {
+                sendReject(clOrdId, REASON_INVALID_ORDER);
+                return;
+            }
+            if (market.book(symbol) == null) { sendReject(clOrdId, REASON_UNKNOWN_SYMBOL); return; }
+
+            Side s = side == SIDE_BUY ? Side.BUY : Side.SELL;
+            Order o = limit ? Order.limit(traderId, symbol, s, qty, price) : Order.market(traderId, symbol, s, qty);
+            if (ordType == TYPE_LIMIT_IOC) o = o.withTimeInForce(TimeInForce.IOC);
+            else if (ordType == TYPE_LIMIT_FOK) o = o.withTimeInForce(TimeInForce.FOK);
+            synchronized (this) {
+                if (!reserve(ACK_LEN)) return;
+                out.put(ACK).putLong(outSeq++).putLong(clOrdId).putLong(o.getId());
+            }
+            List<Trade> trades = new ArrayList<>();
+            boolean working = market.submit(o, trades); // fills reach this session through onTrade
+            if (!working) { // e.g. MARKET or IOC in continuous trading; queued auction orders are still working
+                long filled = 0;
+                for (Trade t : trades) filled += t.getQuantity();
+                if (filled < qty) sendCancelled(clOrdId, o.getId(), qty - filled, REASON_UNFILLED);
+            }
+        }
+
+        private void onCancel(long clOrdId, long orderId, String symbol) {
+            if (market.book(symbol) == null) { sendReject(clOrdId, REASON_UNKNOWN_SYMBOL); return; }
+            Optional<Order> cancelled = market.cancel(traderId, symbol, orderId);
+            if (cancelled.isPresent()) sendCancelled(clOrdId, orderId, cancelled.get().getQuantity(), REASON_USER);
+            else sendReject(clOrdId, REASON_UNKNOWN_ORDER);
+        }
+
+        private synchronized void sendReject(long clOrdId, byte reason) {
+            if (!reserve(REJECT_LEN)) return;
+            out.put(REJECT).putLong(outSeq++).putLong(clOrdId).put(reason);
+        }
+
+        synchronized void sendCancelled(long clOrdId, long orderId, long qty, byte reason) {
+            if (!reserve(CANCELLED_LEN)) return;
+            out.put(CANCELLED).putLong(outSeq++).putLong(clOrdId).putLong(orderId).putLong(qty).put(reason);
+            if (Thread.currentThread() != loop.thread) loop.markDirty(this);
+        }
+
+        void sendFill(Trade t, long orderId, Side side) {
+            synchronized (this) {
+                if (!reserve(FILL_LEN)) return;
+                out.put(FILL).putLong(outSeq++).putLong(orderId).putLong(t.getId());
+                putAscii(out, t.getSymbol(), SYMBOL_LEN);
+                out.put(side == Side.BUY ? SIDE_BUY : SIDE_SELL).putLong(t.getQuantity()).putDouble(t.getPrice());
+            }
+            loop.markDirty(this);
+        }
+
+        /** Checks for room in the write buffer; a client too slow to drain it is disconnected. */
+        private boolean reserve(int len) {
+            if (closed) return false;
+            if (out.remaining() >= len) return true;
+            closeRequested = true;
+            loop.markDirty(this);
+            return false;
+        }
+
+        synchronized void flush() {
+            if (closed) return;
+            try {
+                out.flip();
+                ch.write(out);
+                boolean pendingWrite = out.hasRemaining();
+                out.compact();
+                if (closeRequested && !pendingWrite) { close(); return; }
+                key.interestOps(pendingWrite ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+            } catch (IOException | CancelledKeyException e) {
+                close();
+            }
+        }
+
+        /** Drops this session after an unexpected error while serving it; the loop carries on with the others. */
+        void fail(RuntimeException e) {
+            System.err.println("[GATEWAY] session " + (traderId != null ? traderId : "(not logged in)") + " failed: " + e);
+            close();
+        }
+
+        synchronized void close() {
+            if (closed) return;
+            closed = true;
+            if (traderId != null) sessionsByTrader.remove(traderId, this);
+            if (key != null) key.cancel();
+            try { ch.close(); } catch (IOException ignored) { }
+            pool.release(in);
+            pool.release(out);
+        }
+    }
+}
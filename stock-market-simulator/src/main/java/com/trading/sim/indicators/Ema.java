@@ -0,0 +1,28 @@
+package com.trading.sim.indicators;
+
+/** Exponential moving average with alpha = 2 / (period + 1), seeded with the SMA of the first {@code period} prices. */
+public final class Ema implements Indicator {
+    private final int period;
+    private final double alpha;
+    private int seen;
+    private double ema;
+    private volatile double value = Double.NaN;
+
+    public Ema(int period) {
+        if (period <= 0) throw new IllegalArgumentException("Invalid period: " + period);
+        this.period = period;
+        this.alpha = 2.0 / (period + 1);
+    }
+
+    @Override public void update(double price) {
+        if (seen < period) {
+            ema += price / period;
+            if (++seen == period) value = ema;
+            return;
+        }
+        ema += alpha * (price - ema);
+        value = ema;
+    }
+
+    @Override public double value() { return value; }
+}
@@ -0,0 +1,14 @@
+package com.trading.sim.indicators;
+
+/**
+ * Rolling indicator over one symbol's price stream, updated in O(1) per observation.
+ * Updates come from a single feeding thread; {@link #value()} may be read from any thread.
+ */
+public interface Indicator {
+    void update(double price);
+
+    /** Latest value, NaN until enough observations have arrived. */
+    double value();
+
+    default boolean isReady() { return !Double.isNaN(value()); }
+}
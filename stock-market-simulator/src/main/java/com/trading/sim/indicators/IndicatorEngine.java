@@ -0,0 +1,79 @@
+package com.trading.sim.indicators;
+
+import com.trading.sim.market.Market;
+import com.trading.sim.order.Trade;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntFunction;
+
+/**
+ * Shared rolling indicators per symbol. Each (symbol, kind, period) is computed once per price and
+ * the same instance is handed to every strategy that asks for it, so thousands of traders running
+ * the same signal cost one O(1) update per tick instead of one each.
+ *
+ * Price indicators are fed from mark ticks, VWAP from trades. Thread-safe: updates for a symbol are
+ * serialised on that symbol, reads go through each indicator's published value.
+ */
+public class IndicatorEngine {
+    private static final class SymbolIndicators {
+        final Map<String, Indicator> byKey = new ConcurrentHashMap<>();
+        final List<Indicator> priceIndicators = new CopyOnWriteArrayList<>();
+        final Map<Integer, Vwap> vwaps = new ConcurrentHashMap<>();
+    }
+
+    private final Map<String, SymbolIndicators> symbols = new ConcurrentHashMap<>();
+
+    /** Engine fed by the market's mark ticks and trades. */
+    public static IndicatorEngine attach(Market market) {
+        IndicatorEngine engine = new IndicatorEngine();
+        market.addPriceListener(engine::onPrice);
+        market.addTradeListener(engine::onTrade);
+        return engine;
+    }
+
+    public void onPrice(String symbol, double price) {
+        SymbolIndicators s = symbols.get(symbol);
+        if (s == null) return;
+        synchronized (s) {
+            for (Indicator i : s.priceIndicators) i.update(price);
+        }
+    }
+
+    public void onTrade(Trade t) {
+        SymbolIndicators s = symbols.get(t.getSymbol());
+        if (s == null || s.vwaps.isEmpty()) return;
+        synchronized (s) {
+            for (Vwap v : s.vwaps.values()) v.update(t.getPrice(), t.getQuantity());
+        }
+    }
+
+    public Sma sma(String symbol, int period) { return (Sma) shared(symbol, "sma", period, Sma::new); }
+
+    public Ema ema(String symbol, int period) { return (Ema) shared(symbol, "ema", period, Ema::new); }
+
+    /** Rolling mean, variance, stdev and z-score; {@code value()} is the z-score. */
+    public RollingStats stats(String symbol, int period) {
+        return (RollingStats) shared(symbol, "stats", period, RollingStats::new);
+    }
+
+    public Rsi rsi(String symbol, int period) { return (Rsi) shared(symbol, "rsi", period, Rsi::new); }
+
+    public Vwap vwap(String symbol, int trades) {
+        SymbolIndicators s = symbols.computeIfAbsent(symbol, k -> new SymbolIndicators());
+        return s.vwaps.computeIfAbsent(trades, Vwap::new);
+    }
+
+    private Indicator shared(String symbol, String kind, int period, IntFunction<Indicator> factory) {
+        SymbolIndicators s = symbols.computeIfAbsent(symbol, k -> new SymbolIndicators());
+        return s.byKey.computeIfAbsent(kind + ':' + period, k -> {
+            Indicator i = factory.apply(period);
+            synchronized (s) {
+                s.priceIndicators.add(i);
+            }
+            return i;
+        });
+    }
+}
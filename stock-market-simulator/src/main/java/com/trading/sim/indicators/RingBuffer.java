@@ -0,0 +1,40 @@
+package com.trading.sim.indicators;
+
+/** Fixed-capacity window of doubles over a primitive array; the oldest value drops out on overflow. */
+public final class RingBuffer {
+    private final double[] values;
+    private int next;
+    private int size;
+
+    public RingBuffer(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        this.values = new double[capacity];
+    }
+
+    /** Appends {@code v} and returns the value it displaced, or NaN while the window is still filling. */
+    public double push(double v) {
+        double evicted = size == values.length ? values[next] : Double.NaN;
+        values[next] = v;
+        next = next + 1 == values.length ? 0 : next + 1;
+        if (size < values.length) size++;
+        return evicted;
+    }
+
+    /** The i-th most recent value (0 = latest). */
+    public double get(int i) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException(i);
+        int idx = next - 1 - i;
+        return values[idx < 0 ? idx + values.length : idx];
+    }
+
+    /** Sum of the window, recomputed from scratch; used to shed drift from running sums. */
+    public double sum() {
+        double s = 0;
+        for (int i = 0; i < size; i++) s += values[i];
+        return s;
+    }
+
+    public int size() { return size; }
+    public int capacity() { return values.length; }
+    public boolean isFull() { return size == values.length; }
+}
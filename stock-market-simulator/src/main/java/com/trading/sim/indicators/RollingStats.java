@@ -0,0 +1,90 @@
+package com.trading.sim.indicators;
+
+/**
+ * Rolling mean, variance, standard deviation and z-score of the last {@code period} prices.
+ * The window's mean and sum of squared deviations are adjusted for the value entering and the one
+ * leaving (a sliding Welford update), which stays accurate where sum-of-squares cancels out at price
+ * levels far from zero. {@link #value()} is the z-score of the latest price.
+ *
+ * Results are published as one immutable {@link Snapshot}, so a reader on another thread never pairs
+ * the z-score of one update with the mean or variance of another; read several of them through
+ * {@link #snapshot()}.
+ */
+public final class RollingStats implements Indicator {
+    private final RingBuffer window;
+    private double mean;
+    private double m2; // sum of squared deviations from the mean
+    private int sinceRecompute;
+    private volatile Snapshot published = Snapshot.EMPTY;
+
+    public RollingStats(int period) {
+        if (period < 2) throw new IllegalArgumentException("Period must be at least 2: " + period);
+        this.window = new RingBuffer(period);
+    }
+
+    @Override public void update(double price) {
+        double evicted = window.push(price);
+        if (Double.isNaN(evicted)) {
+            int n = window.size();
+            double delta = price - mean;
+            mean += delta / n;
+            m2 += delta * (price - mean);
+        } else {
+            double oldMean = mean;
+            mean += (price - evicted) / window.capacity();
+            m2 += (price - evicted) * (price - mean + evicted - oldMean);
+            if (m2 < 0) m2 = 0; // rounding
+        }
+        if (++sinceRecompute == window.capacity()) { // once per window: amortised O(1), sheds accumulated rounding
+            recompute();
+            sinceRecompute = 0;
+        }
+        if (!window.isFull()) return;
+        double variance = m2 / (window.capacity() - 1);
+        double sd = Math.sqrt(variance);
+        published = new Snapshot(sd > 0 ? (price - mean) / sd : 0, mean, variance);
+    }
+
+    private void recompute() {
+        int n = window.size();
+        mean = window.sum() / n;
+        m2 = 0;
+        for (int i = 0; i < n; i++) {
+            double d = window.get(i) - mean;
+            m2 += d * d;
+        }
+    }
+
+    /** All statistics as of the same update; NaN while the window fills. */
+    public Snapshot snapshot() { return published; }
+
+    /** Z-score of the latest price against the window. */
+    @Override public double value() { return published.zScore(); }
+
+    public double mean() { return published.mean(); }
+
+    /** Sample variance of the window. */
+    public double variance() { return published.variance(); }
+
+    public double stdev() { return published.stdev(); }
+
+    /** Z-score, mean and variance from one update of the window. */
+    public static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(Double.NaN, Double.NaN, Double.NaN);
+
+        private final double zScore;
+        private final double mean;
+        private final double variance;
+
+        Snapshot(double zScore, double mean, double variance) {
+            this.zScore = zScore;
+            this.mean = mean;
+            this.variance = variance;
+        }
+
+        public double zScore() { return zScore; }
+        public double mean() { return mean; }
+        public double variance() { return variance; }
+        public double stdev() { return Math.sqrt(variance); }
+    }
+}
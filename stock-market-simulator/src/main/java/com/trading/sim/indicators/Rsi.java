@@ -0,0 +1,37 @@
+package com.trading.sim.indicators;
+
+/** Relative strength index with Wilder's smoothing; 0..100, seeded from the first {@code period} changes. */
+public final class Rsi implements Indicator {
+    private final int period;
+    private double prev = Double.NaN;
+    private double avgGain;
+    private double avgLoss;
+    private int changes;
+    private volatile double value = Double.NaN;
+
+    public Rsi(int period) {
+        if (period <= 0) throw new IllegalArgumentException("Invalid period: " + period);
+        this.period = period;
+    }
+
+    @Override public void update(double price) {
+        if (Double.isNaN(prev)) {
+            prev = price;
+            return;
+        }
+        double change = price - prev;
+        prev = price;
+        double gain = Math.max(change, 0), loss = Math.max(-change, 0);
+        if (changes < period) {
+            avgGain += gain / period;
+            avgLoss += loss / period;
+            if (++changes < period) return;
+        } else {
+            avgGain = (avgGain * (period - 1) + gain) / period;
+            avgLoss = (avgLoss * (period - 1) + loss) / period;
+        }
+        value = avgLoss == 0 ? (avgGain == 0 ? 50 : 100) : 100 - 100 / (1 + avgGain / avgLoss);
+    }
+
+    @Override public double value() { return value; }
+}
@@ -0,0 +1,23 @@
+package com.trading.sim.indicators;
+
+/** Simple moving average over the last {@code period} prices, kept as a running sum. */
+public final class Sma implements Indicator {
+    private final RingBuffer window;
+    private double sum;
+    private int sinceResum;
+    private volatile double value = Double.NaN;
+
+    public Sma(int period) { this.window = new RingBuffer(period); }
+
+    @Override public void update(double price) {
+        double evicted = window.push(price);
+        sum += price - (Double.isNaN(evicted) ? 0 : evicted);
+        if (++sinceResum == window.capacity()) { // once per window: amortised O(1), keeps rounding from accumulating
+            sum = window.sum();
+            sinceResum = 0;
+        }
+        if (window.isFull()) value = sum / window.capacity();
+    }
+
+    @Override public double value() { return value; }
+}
@@ -0,0 +1,26 @@
+package com.trading.sim.indicators;
+
+/** Volume-weighted average trade price over the last {@code trades} executions. */
+public final class Vwap {
+    private final RingBuffer notionals;
+    private final RingBuffer quantities;
+    private double notional;
+    private double quantity;
+    private volatile double value = Double.NaN;
+
+    public Vwap(int trades) {
+        this.notionals = new RingBuffer(trades);
+        this.quantities = new RingBuffer(trades);
+    }
+
+    public void update(double price, long qty) {
+        double n = price * qty;
+        double oldN = notionals.push(n), oldQ = quantities.push(qty);
+        notional += n - (Double.isNaN(oldN) ? 0 : oldN);
+        quantity += qty - (Double.isNaN(oldQ) ? 0 : oldQ);
+        if (quantity > 0) value = notional / quantity;
+    }
+
+    /** NaN until the first trade. */
+    public double value() { return value; }
+}
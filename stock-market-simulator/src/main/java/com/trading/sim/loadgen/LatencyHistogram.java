@@ -0,0 +1,58 @@
+package com.trading.sim.loadgen;
+
+/**
+ * Fixed-size log-linear latency histogram (nanoseconds), roughly 3% value precision.
+ * Not thread-safe: each worker records into its own instance and the results are merged at the end.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB_COUNT;
+
+    private final long[] counts = new long[BUCKETS];
+    private long total;
+    private long max;
+
+    public void record(long nanos) {
+        long v = Math.max(0, nanos);
+        counts[indexOf(v)]++;
+        total++;
+        if (v > max) max = v;
+    }
+
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) counts[i] += other.counts[i];
+        total += other.total;
+        max = Math.max(max, other.max);
+    }
+
+    public long count() { return total; }
+    public long max() { return max; }
+
+    /** Upper bound of the bucket holding the given percentile (0..100), capped at the observed max. */
+    public long percentile(double pct) {
+        if (total == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(pct / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= target) return Math.min(max, lowerBound(i + 1) - 1);
+        }
+        return max;
+    }
+
+    private static int indexOf(long v) {
+        if (v < SUB_COUNT) return (int) v;
+        int exp = 63 - Long.numberOfLeadingZeros(v);
+        int mantissa = (int) ((v >>> (exp - SUB_BITS)) & (SUB_COUNT - 1));
+        return (exp - SUB_BITS + 1) * SUB_COUNT + mantissa;
+    }
+
+    private static long lowerBound(int index) {
+        if (index < SUB_COUNT) return index;
+        int exp = index / SUB_COUNT + SUB_BITS - 1;
+        long mantissa = index % SUB_COUNT;
+        if (exp >= 63) return Long.MAX_VALUE;
+        return (SUB_COUNT + mantissa) << (exp - SUB_BITS);
+    }
+}
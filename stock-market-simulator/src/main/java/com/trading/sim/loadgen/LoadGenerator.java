@@ -0,0 +1,258 @@
+package com.trading.sim.loadgen;
+
+import com.trading.sim.engine.OrderBook;
+import com.trading.sim.indicators.IndicatorEngine;
+import com.trading.sim.market.Market;
+import com.trading.sim.model.Company;
+import com.trading.sim.order.Order;
+import com.trading.sim.trader.Strategy;
+import com.trading.sim.trader.strategies.MeanReversionStrategy;
+import com.trading.sim.trader.strategies.RandomStrategy;
+import com.trading.sim.trader.strategies.ZScoreStrategy;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Headless load generator: drives a Market at a fixed target order rate and prints a throughput
+ * and latency report.
+ *
+ * The schedule is open-loop: each worker owns a timetable of intended send times and latency is
+ * measured from the intended time, not from the moment the order was actually sent. A slow engine
+ * therefore shows up as latency instead of silently lowering the offered load (coordinated omission).
+ *
+ * Usage: --symbols 50 --traders 200 --mix random:3,meanrev:1,zscore:1 --rate 20000 --duration 30 --seed 42 [--threads 4]
+ */
+public class LoadGenerator {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    public static void main(String[] args) throws InterruptedException {
+        Config cfg = Config.parse(args);
+        new LoadGenerator().run(cfg);
+    }
+
+    public void run(Config cfg) throws InterruptedException {
+        Random rng = new Random(cfg.seed);
+        LongAdder fills = new LongAdder();
+        LongAdder filledQty = new LongAdder();
+
+        try (Market market = new Market(rng)) {
+            for (int i = 0; i < cfg.symbols; i++) {
+                double px = Math.round((10 + rng.nextDouble() * 190) * 100.0) / 100.0;
+                market.listCompany(new Company("Load Co " + i, String.format("S%04d", i), px, 0.20 + rng.nextDouble() * 0.30));
+            }
+            market.addTradeListener(t -> { fills.increment(); filledQty.add(t.getQuantity()); });
+            IndicatorEngine indicators = IndicatorEngine.attach(market);
+            market.start();
+
+            List<String> symbols = Collections.unmodifiableList(market.symbols());
+            Worker[] workers = new Worker[cfg.threads];
+            for (int w = 0; w < cfg.threads; w++) {
+                workers[w] = new Worker(market, symbols, cfg.rate / cfg.threads);
+            }
+            for (int i = 0; i < cfg.traders; i++) {
+                String traderId = String.format("L-%05d", i);
+                workers[i % cfg.threads].addTrader(traderId, cfg.pickStrategy(rng, indicators), new Random(rng.nextLong()));
+            }
+
+            long startNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+            long endNanos = startNanos + TimeUnit.SECONDS.toNanos(cfg.durationSeconds);
+            CountDownLatch done = new CountDownLatch(cfg.threads);
+            for (int w = 0; w < cfg.threads; w++) {
+                Worker worker = workers[w];
+                Thread t = new Thread(() -> {
+                    try {
+                        worker.drive(startNanos, endNanos);
+                    } finally {
+                        done.countDown();
+                    }
+                }, "loadgen-" + w);
+                t.setDaemon(true);
+                t.start();
+            }
+            done.await();
+            long elapsedNanos = Math.max(1, System.nanoTime() - startNanos);
+
+            report(cfg, market, workers, fills.sum(), filledQty.sum(), elapsedNanos);
+        }
+    }
+
+    private void report(Config cfg, Market market, Worker[] workers, long fills, long filledQty, long elapsedNanos) {
+        LatencyHistogram latency = new LatencyHistogram();
+        long orders = 0, idleSlots = 0, errors = 0;
+        for (Worker w : workers) {
+            latency.merge(w.latency);
+            orders += w.orders;
+            idleSlots += w.idleSlots;
+            errors += w.errors;
+        }
+        double secs = elapsedNanos / 1e9;
+
+        System.out.println("=== Load report ===");
+        System.out.printf("Symbols=%d Traders=%d Threads=%d Mix=%s Seed=%d%n",
+                cfg.symbols, cfg.traders, cfg.threads, cfg.mixSpec, cfg.seed);
+        System.out.printf("Target rate=%,.0f orders/s  Elapsed=%.2fs%n", cfg.rate, secs);
+        System.out.printf("Orders submitted=%,d (%,.0f/s)  Idle slots=%,d  Errors=%,d%n",
+                orders, orders / secs, idleSlots, errors);
+        System.out.printf("Fills=%,d (%,.0f/s)  Filled qty=%,d%n", fills, fills / secs, filledQty);
+
+        StringBuilder sb = new StringBuilder("Latency us:");
+        for (double p : PERCENTILES) {
+            sb.append(String.format(" p%s=%.1f", trimPct(p), latency.percentile(p) / 1_000.0));
+        }
+        sb.append(String.format(" max=%.1f", latency.max() / 1_000.0));
+        System.out.println(sb);
+
+        long totalBids = 0, totalAsks = 0;
+        String deepest = null;
+        int deepestSize = -1;
+        for (String sym : market.symbols()) {
+            OrderBook book = market.book(sym);
+            int b = book.bidCount(), a = book.askCount();
+            totalBids += b;
+            totalAsks += a;
+            if (b + a > deepestSize) { deepestSize = b + a; deepest = sym; }
+        }
+        System.out.printf("Resting orders: bids=%,d asks=%,d  deepest=%s (%,d)%n",
+                totalBids, totalAsks, deepest, Math.max(0, deepestSize));
+    }
+
+    private static String trimPct(double p) {
+        return p == Math.rint(p) ? String.valueOf((long) p) : String.valueOf(p);
+    }
+
+    /**
+     * One load thread. Owns a disjoint set of traders (strategies are not thread-safe) and its own
+     * latency histogram, so the hot loop shares nothing but the Market.
+     */
+    private static final class Worker {
+        private final Market market;
+        private final List<String> symbols;
+        private final Function<String, Double> lastPrice;
+        private final long intervalNanos;
+        private final List<String> traderIds = new ArrayList<>();
+        private final List<Strategy> strategies = new ArrayList<>();
+        private final List<Random> rngs = new ArrayList<>();
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private long orders, idleSlots, errors;
+
+        Worker(Market market, List<String> symbols, double ratePerThread) {
+            this.market = market;
+            this.symbols = symbols;
+            this.lastPrice = market::lastPrice;
+            this.intervalNanos = Math.max(1, (long) (1e9 / ratePerThread));
+        }
+
+        void addTrader(String id, Strategy strategy, Random rng) {
+            traderIds.add(id);
+            strategies.add(strategy);
+            rngs.add(rng);
+        }
+
+        void drive(long startNanos, long endNanos) {
+            int n = traderIds.size();
+            if (n == 0) return;
+            int next = 0;
+            for (long slot = 0; ; slot++) {
+                long intended = startNanos + slot * intervalNanos;
+                if (intended >= endNanos) break;
+                waitUntil(intended);
+
+                // Poll traders round-robin until one proposes something, at most one full lap per slot.
+                List<Order> batch = Collections.emptyList();
+                for (int tries = 0; tries < n && batch.isEmpty(); tries++) {
+                    int i = next;
+                    next = (next + 1) % n;
+                    batch = strategies.get(i).generate(traderIds.get(i), symbols, lastPrice, rngs.get(i));
+                }
+                if (batch.isEmpty()) { idleSlots++; continue; }
+
+                for (Order o : batch) {
+                    try {
+                        market.submit(o);
+                        orders++;
+                    } catch (RuntimeException e) {
+                        errors++;
+                    }
+                    latency.record(System.nanoTime() - intended);
+                }
+            }
+        }
+
+        private static void waitUntil(long deadline) {
+            long remaining;
+            while ((remaining = deadline - System.nanoTime()) > 0) {
+                if (remaining > 100_000) LockSupport.parkNanos(remaining - 50_000);
+                else Thread.onSpinWait();
+            }
+        }
+    }
+
+    /** Command-line options. */
+    public static final class Config {
+        private static final Set<String> STRATEGIES = Set.of("random", "meanrev", "zscore");
+
+        int symbols = 20;
+        int traders = 100;
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        double rate = 10_000;
+        long durationSeconds = 10;
+        long seed = 42;
+        String mixSpec = "random:1,meanrev:1";
+        private final Map<String, Double> mix = new LinkedHashMap<>();
+
+        public static Config parse(String[] args) {
+            Config c = new Config();
+            for (int i = 0; i < args.length; i++) {
+                String key = args[i];
+                if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + key);
+                String val = args[++i];
+                switch (key) {
+                    case "--symbols": c.symbols = Integer.parseInt(val); break;
+                    case "--traders": c.traders = Integer.parseInt(val); break;
+                    case "--threads": c.threads = Integer.parseInt(val); break;
+                    case "--rate": c.rate = Double.parseDouble(val); break;
+                    case "--duration": c.durationSeconds = Long.parseLong(val); break;
+                    case "--seed": c.seed = Long.parseLong(val); break;
+                    case "--mix": c.mixSpec = val; break;
+                    default: throw new IllegalArgumentException("Unknown option: " + key);
+                }
+            }
+            if (c.symbols <= 0 || c.traders <= 0 || c.threads <= 0 || c.rate <= 0 || c.durationSeconds <= 0) {
+                throw new IllegalArgumentException("symbols, traders, threads, rate and duration must be positive");
+            }
+            c.threads = Math.min(c.threads, c.traders);
+            for (String part : c.mixSpec.split(",")) {
+                String[] kv = part.trim().split(":");
+                double weight = kv.length > 1 ? Double.parseDouble(kv[1]) : 1.0;
+                if (!STRATEGIES.contains(kv[0])) throw new IllegalArgumentException("Unknown strategy: " + kv[0]);
+                c.mix.put(kv[0], weight);
+            }
+            return c;
+        }
+
+        Strategy pickStrategy(Random rng, IndicatorEngine indicators) {
+            double total = 0;
+            for (double w : mix.values()) total += w;
+            double r = rng.nextDouble() * total;
+            for (Map.Entry<String, Double> e : mix.entrySet()) {
+                r -= e.getValue();
+                if (r < 0) return newStrategy(e.getKey(), indicators);
+            }
+            return newStrategy(mix.keySet().iterator().next(), indicators);
+        }
+
+        private static Strategy newStrategy(String name, IndicatorEngine indicators) {
+            switch (name) {
+                case "random": return new RandomStrategy();
+                case "meanrev": return new MeanReversionStrategy();
+                case "zscore": return new ZScoreStrategy(indicators, 50, 1.5);
+                default: throw new IllegalArgumentException("Unknown strategy: " + name);
+            }
+        }
+    }
+}
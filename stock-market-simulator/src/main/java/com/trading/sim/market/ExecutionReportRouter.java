@@ -0,0 +1,47 @@
+package com.trading.sim.market;
+
+import com.trading.sim.order.ExecutionReport;
+import com.trading.sim.order.Trade;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Delivers each trade exactly once to the buyer's and the seller's mailbox, found by trader id, so
+ * routing costs two lookups per trade however many traders there are. Traders without a mailbox are
+ * skipped. Thread-safe.
+ */
+public class ExecutionReportRouter {
+    /** Execution reports for one trader, in the order its fills happened. */
+    public static final class Mailbox {
+        private final Queue<ExecutionReport> reports = new ConcurrentLinkedQueue<>();
+
+        public ExecutionReport poll() { return reports.poll(); }
+
+        /** Hands every pending report to {@code sink}; returns how many there were. */
+        public int drain(Consumer<ExecutionReport> sink) {
+            int n = 0;
+            for (ExecutionReport r; (r = reports.poll()) != null; n++) sink.accept(r);
+            return n;
+        }
+
+        public boolean isEmpty() { return reports.isEmpty(); }
+    }
+
+    private final Map<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    /** The trader's mailbox, created on first use; reports for fills before that are not kept. */
+    public Mailbox mailbox(String traderId) { return mailboxes.computeIfAbsent(traderId, id -> new Mailbox()); }
+
+    public void close(String traderId) { mailboxes.remove(traderId); }
+
+    public void route(Trade t) {
+        Mailbox buyer = mailboxes.get(t.getBuyTraderId());
+        if (buyer != null) buyer.reports.add(ExecutionReport.buySide(t));
+        Mailbox seller = mailboxes.get(t.getSellTraderId());
+        if (seller != null) seller.reports.add(ExecutionReport.sellSide(t));
+    }
+}
@@ -0,0 +1,191 @@
+package com.trading.sim.market;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Versioned, immutable mark snapshots across all symbols.
+ *
+ * Writers (a price tick over all symbols, a reset of the symbol set) copy the current epoch, apply
+ * their changes and swap it in; they serialise among themselves but never wait for readers. Matching
+ * stays off that path: a batch only stores its last trade price in a per-symbol slot and flags it, and
+ * the next price tick or the next reader folds all pending last trades into a new epoch, so a reader
+ * always sees every batch published before it acquired.
+ *
+ * Readers take the current epoch with a lock-free reference count and may hold it as long as they
+ * like. An epoch whose count drops to zero after being superseded hands its arrays back to a small
+ * pool for the next writer, so steady-state publishing allocates nothing.
+ */
+public class MarkEpochs {
+    private static final int POOL_LIMIT = 16;
+
+    private final AtomicReference<Epoch> current;
+    private final Queue<double[]> pool = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile PendingTrades pending = new PendingTrades(Map.of());
+
+    public MarkEpochs() {
+        current = new AtomicReference<>(new Epoch(0, Map.of(), new double[0], new double[0]));
+    }
+
+    /**
+     * The latest epoch, retained until the returned snapshot is closed. Never blocks: last trades still
+     * pending are folded in first unless a writer holds the lock, in which case that writer does it.
+     */
+    public MarkSnapshot acquire() {
+        if (pending.dirty && writeLock.tryLock()) {
+            try {
+                foldPending();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        while (true) {
+            Epoch e = current.get();
+            int r = e.refs.get();
+            // zero means superseded and already reclaimed: reload and try the newer epoch
+            if (r > 0 && e.refs.compareAndSet(r, r + 1)) return new MarkSnapshot(this, e);
+        }
+    }
+
+    public long currentEpoch() { return current.get().epoch; }
+
+    /**
+     * Publishes new marks for several symbols (e.g. one price tick) as a single epoch, together with
+     * every last trade price stored by {@link #publishTrade} and not yet folded in.
+     */
+    public void publishMarks(Map<String, Double> marks) {
+        writeLock.lock();
+        try {
+            Epoch base = current.get();
+            Epoch next = copy(base);
+            marks.forEach((sym, px) -> {
+                Integer i = base.index.get(sym);
+                if (i != null) next.marks[i] = px;
+            });
+            pending.drainInto(next.lastTrades);
+            swap(next);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Records the last trade price of one symbol after a matching batch. Lock-free and allocation-free;
+     * the price reaches readers in the epoch the next {@link #acquire()} or {@link #publishMarks} creates.
+     */
+    public void publishTrade(String symbol, double lastTrade) {
+        PendingTrades p = pending;
+        Integer i = p.index.get(symbol);
+        if (i == null) return;
+        p.trades.set(i, Double.doubleToRawLongBits(lastTrade));
+        p.dirty = true; // after the slot: a fold that clears the flag first still drains this price
+    }
+
+    /** Replaces the symbol set, e.g. after listing or removing a company; prices are taken as given. */
+    public void reset(List<String> symbols, Map<String, Double> marks, Map<String, Double> lastTrades) {
+        writeLock.lock();
+        try {
+            Map<String, Integer> index = new HashMap<>();
+            for (String s : symbols) index.put(s, index.size());
+            double[] m = new double[index.size()], t = new double[index.size()];
+            index.forEach((sym, i) -> {
+                m[i] = marks.getOrDefault(sym, Double.NaN);
+                t[i] = lastTrades.getOrDefault(sym, Double.NaN);
+            });
+            Map<String, Integer> view = Collections.unmodifiableMap(index);
+            pending = new PendingTrades(view);
+            swap(new Epoch(current.get().epoch + 1, view, m, t));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void foldPending() {
+        if (!pending.dirty) return; // folded by a writer since the caller looked
+        Epoch next = copy(current.get());
+        pending.drainInto(next.lastTrades);
+        swap(next);
+    }
+
+    private Epoch copy(Epoch base) {
+        double[] m = take(base.marks.length), t = take(base.lastTrades.length);
+        System.arraycopy(base.marks, 0, m, 0, m.length);
+        System.arraycopy(base.lastTrades, 0, t, 0, t.length);
+        return new Epoch(base.epoch + 1, base.index, m, t);
+    }
+
+    private void swap(Epoch next) {
+        release(current.getAndSet(next)); // drop the publisher's reference to the old epoch
+    }
+
+    void release(Epoch e) {
+        int r = e.refs.decrementAndGet();
+        if (r < 0) throw new IllegalStateException("Epoch " + e.epoch + " released more often than acquired");
+        if (r == 0) {
+            recycle(e.marks);
+            recycle(e.lastTrades);
+        }
+    }
+
+    private double[] take(int length) {
+        double[] a = pool.poll();
+        return a != null && a.length == length ? a : new double[length];
+    }
+
+    private void recycle(double[] a) {
+        if (a.length > 0 && pool.size() < POOL_LIMIT) {
+            Arrays.fill(a, Double.NaN); // a stale reader would see NaN rather than another epoch's prices
+            pool.add(a);
+        }
+    }
+
+    /** One published version of every mark and last trade; shared by all snapshots taken of it. */
+    static final class Epoch {
+        final long epoch;
+        final Map<String, Integer> index;
+        final double[] marks;
+        final double[] lastTrades;
+        final AtomicInteger refs = new AtomicInteger(1); // the publisher's reference while this epoch is current
+
+        Epoch(long epoch, Map<String, Integer> index, double[] marks, double[] lastTrades) {
+            this.epoch = epoch;
+            this.index = index;
+            this.marks = marks;
+            this.lastTrades = lastTrades;
+        }
+    }
+
+    /** Last trade prices not yet in an epoch, one slot per symbol of an index; NaN when none. */
+    private static final class PendingTrades {
+        private static final long NONE = Double.doubleToRawLongBits(Double.NaN);
+
+        final Map<String, Integer> index;
+        final AtomicLongArray trades;
+        volatile boolean dirty;
+
+        PendingTrades(Map<String, Integer> index) {
+            this.index = index;
+            this.trades = new AtomicLongArray(index.size());
+            for (int i = 0; i < trades.length(); i++) trades.set(i, NONE);
+        }
+
+        void drainInto(double[] lastTrades) {
+            dirty = false;
+            for (int i = 0; i < lastTrades.length && i < trades.length(); i++) {
+                if (trades.get(i) == NONE) continue; // plain read first: most symbols did not trade
+                long bits = trades.getAndSet(i, NONE);
+                if (bits != NONE) lastTrades[i] = Double.longBitsToDouble(bits);
+            }
+        }
+    }
+}
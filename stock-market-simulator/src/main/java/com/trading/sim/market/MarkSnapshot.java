@@ -0,0 +1,46 @@
+package com.trading.sim.market;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Immutable view of every symbol's mark and last trade price as of one epoch. Obtain it from
+ * {@link MarkEpochs#acquire()} and close it when done so its arrays can be reused; all prices read
+ * from one snapshot belong to the same tick. Each acquisition is its own handle: closing it again is
+ * a no-op, and reading after close fails.
+ */
+public final class MarkSnapshot implements AutoCloseable, Function<String, Double> {
+    private final MarkEpochs owner;
+    private final MarkEpochs.Epoch epoch;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    MarkSnapshot(MarkEpochs owner, MarkEpochs.Epoch epoch) {
+        this.owner = owner;
+        this.epoch = epoch;
+    }
+
+    public long epoch() { return epoch.epoch; }
+
+    public boolean contains(String symbol) { return epoch.index.containsKey(symbol); }
+
+    /** Mark price of the symbol in this epoch. */
+    public double mark(String symbol) { return epoch.marks[slot(symbol)]; }
+
+    /** Last trade price of the symbol in this epoch, NaN if it has not traded. */
+    public double lastTrade(String symbol) { return epoch.lastTrades[slot(symbol)]; }
+
+    /** Same as {@link #mark}, so a snapshot can stand in wherever a price function is expected. */
+    @Override public Double apply(String symbol) { return mark(symbol); }
+
+    private int slot(String symbol) {
+        if (closed.get()) throw new IllegalStateException("Snapshot of epoch " + epoch.epoch + " is closed");
+        Integer i = epoch.index.get(symbol);
+        if (i == null) throw new IllegalArgumentException("Unknown symbol: " + symbol);
+        return i;
+    }
+
+    /** Releases this reader's hold on the epoch; only the first call counts. */
+    @Override public void close() {
+        if (closed.compareAndSet(false, true)) owner.release(epoch);
+    }
+}
@@ -1,22 +1,47 @@
 package com.trading.sim.market;
 
+import com.trading.sim.engine.AuctionResult;
+import com.trading.sim.engine.BookListener;
 import com.trading.sim.engine.MatchingEngine;
 import com.trading.sim.engine.OrderBook;
 import com.trading.sim.engine.PriceEngine;
+import com.trading.sim.engine.PriceLevel;
+import com.trading.sim.engine.TradingPhase;
 import com.trading.sim.model.Company;
 import com.trading.sim.model.Stock;
+import com.trading.sim.order.MassQuote;
 import com.trading.sim.order.Order;
+import com.trading.sim.order.QuoteAck;
+import com.trading.sim.order.Side;
+import com.trading.sim.order.TimeInForce;
 import com.trading.sim.order.Trade;
+import com.trading.sim.trader.Account;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 
 /**
  * Orchestrates stocks, order books, matching engines and background price engine.
  * Provides a thread-safe gateway for traders.
  */
 public class Market implements AutoCloseable {
+    private static final int SNAPSHOT_MAGIC = 0x534D5353; // "SMSS"
+    private static final short SNAPSHOT_VERSION = 4; // 2: last trade, stops; 3: time-in-force; 4: phase, queued market orders
+    private static final long EXPIRY_SWEEP_MILLIS = 100;
+
+    private final Map<String, Company> companies = new ConcurrentHashMap<>();
     private final Map<String, Stock> stocks = new ConcurrentHashMap<>();
     private final Map<String, OrderBook> books = new ConcurrentHashMap<>();
     private final Map<String, MatchingEngine> engines = new ConcurrentHashMap<>();
@@ -24,40 +49,509 @@ public class Market implements AutoCloseable {
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
 
     private final List<Consumer<Trade>> tradeListeners = new CopyOnWriteArrayList<>();
+    private final List<BookListener> bookListeners = new CopyOnWriteArrayList<>();
+    private final List<BiConsumer<String, Double>> priceListeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<Order>> expiryListeners = new CopyOnWriteArrayList<>();
+    private final Map<String, Account> accounts = new ConcurrentHashMap<>();
+    private final ExecutionReportRouter executions = new ExecutionReportRouter();
+    private final MarkEpochs marks = new MarkEpochs();
 
     private final Random rng;
+    private final LongSupplier clockMillis; // drives GTD expiry
     private PriceEngine priceEngine;
+    private volatile TradingPhase phase = TradingPhase.CONTINUOUS;
+
+    public Market(Random rng) { this(rng, System::currentTimeMillis); }
 
-    public Market(Random rng) { this.rng = rng; }
+    /** A market whose GTD expiry runs on {@code clockMillis} (epoch millis), e.g. a simulated clock. */
+    public Market(Random rng, LongSupplier clockMillis) {
+        this.rng = rng;
+        this.clockMillis = clockMillis;
+    }
 
     public void listCompany(Company c) {
+        companies.putIfAbsent(c.getTicker(), c);
         stocks.putIfAbsent(c.getTicker(), new Stock(c.getTicker(), c.getInitialPrice()));
-        books.putIfAbsent(c.getTicker(), new OrderBook(c.getTicker()));
-        engines.putIfAbsent(c.getTicker(), new MatchingEngine(books.get(c.getTicker())));
+        books.putIfAbsent(c.getTicker(), new OrderBook(c.getTicker(), clockMillis.getAsLong()));
+        MatchingEngine me = new MatchingEngine(books.get(c.getTicker()), this::fireLevelChange);
+        me.restorePhase(phase);
+        engines.putIfAbsent(c.getTicker(), me);
+        resetMarks();
     }
 
     public void start() {
-        this.priceEngine = new PriceEngine(scheduler, stocks, rng);
+        this.priceEngine = new PriceEngine(scheduler, stocks, rng, this::firePriceTick, marks::publishMarks);
         priceEngine.start(200); // 5 ticks per second
+        scheduler.scheduleAtFixedRate(() -> expireOrders(clockMillis.getAsLong()),
+                EXPIRY_SWEEP_MILLIS, EXPIRY_SWEEP_MILLIS, TimeUnit.MILLISECONDS);
     }
 
     public double lastPrice(String symbol) { return stocks.get(symbol).getMarkPrice(); }
 
+    /**
+     * Epoch snapshots of all marks and last trades: a new epoch per price tick and per matching batch.
+     * Use {@code try (MarkSnapshot s = market.marks().acquire()) { ... }} for a consistent cross-symbol view.
+     */
+    public MarkEpochs marks() { return marks; }
+
+    /** Sum of every account's net liquidation value, all priced in the given epoch. */
+    public double firmNetLiq(MarkSnapshot epoch) {
+        double total = 0;
+        for (Account a : accounts.values()) total += a.netLiq(epoch);
+        return total;
+    }
+
+    /** Sum over accounts and symbols of |position| x mark in the given epoch. */
+    public double firmGrossExposure(MarkSnapshot epoch) {
+        double total = 0;
+        for (Account a : accounts.values()) total += a.grossExposure(epoch);
+        return total;
+    }
+
     public List<String> symbols() { return new ArrayList<>(stocks.keySet()); }
 
+    public OrderBook book(String symbol) { return books.get(symbol); }
+
+    /** Returns the trader's account, creating it with the given cash if the market does not know it yet. */
+    public Account openAccount(String traderId, double startingCash) {
+        return accounts.computeIfAbsent(traderId, id -> new Account(startingCash));
+    }
+
     public void addTradeListener(Consumer<Trade> listener) { tradeListeners.add(listener); }
 
+    /** Per-trader execution reports: every fill of the trader's orders, aggressive or passive, auctions included. */
+    public ExecutionReportRouter.Mailbox executionReports(String traderId) { return executions.mailbox(traderId); }
+
+    /** Level changes are delivered under the book lock, in book order per symbol; keep listeners cheap. */
+    public void addBookListener(BookListener listener) { bookListeners.add(listener); }
+
+    /** Called on the price-engine thread with (symbol, new mark) for every tick. */
+    public void addPriceListener(BiConsumer<String, Double> listener) { priceListeners.add(listener); }
+
+    public TradingPhase phase() { return phase; }
+
+    /**
+     * Moves every symbol to {@code next}, uncrossing books that leave an auction call. Auction trades go
+     * to the trade listeners; MARKET orders the uncross left unfilled go to the expiry listeners.
+     */
+    public synchronized List<AuctionResult> setPhase(TradingPhase next) {
+        List<AuctionResult> results = new ArrayList<>();
+        for (Map.Entry<String, MatchingEngine> e : engines.entrySet()) {
+            double ref = books.get(e.getKey()).getLastTradePrice();
+            if (Double.isNaN(ref)) ref = stocks.get(e.getKey()).getMarkPrice();
+            AuctionResult r = e.getValue().setPhase(next, ref);
+            publish(r.getTrades());
+            for (Order o : r.getUnfilled()) {
+                for (Consumer<Order> l : expiryListeners) l.accept(o);
+            }
+            results.add(r);
+        }
+        phase = next;
+        return results;
+    }
+
+    /**
+     * Runs a repeating trading day on the market scheduler: PRE_OPEN (opening call), CONTINUOUS,
+     * PRE_CLOSE (closing call) and CLOSED, each for the given number of milliseconds.
+     */
+    public void scheduleSessions(long preOpenMillis, long continuousMillis, long preCloseMillis, long closedMillis) {
+        long[] lengths = { preOpenMillis, continuousMillis, preCloseMillis, closedMillis };
+        TradingPhase[] order = TradingPhase.values();
+        setPhase(TradingPhase.PRE_OPEN);
+        scheduler.schedule(new Runnable() {
+            private int current;
+
+            @Override public void run() {
+                current = (current + 1) % order.length;
+                setPhase(order[current]);
+                scheduler.schedule(this, lengths[current], TimeUnit.MILLISECONDS);
+            }
+        }, preOpenMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /** Called with each order the market removes on its own: GTD orders at expiry and MARKET orders an auction left unfilled. */
+    public void addExpiryListener(Consumer<Order> listener) { expiryListeners.add(listener); }
+
+    /**
+     * Removes GTD orders whose expiry is at or before {@code nowMillis} and reports them to the expiry
+     * listeners. Once started, runs every 100 ms (real time) at the market clock's current time; with a
+     * simulated clock, call it directly as that clock advances. Times must not run behind the clock.
+     */
+    public void expireOrders(long nowMillis) {
+        for (MatchingEngine me : engines.values()) {
+            for (Order o : me.expire(nowMillis)) {
+                for (Consumer<Order> l : expiryListeners) l.accept(o);
+            }
+        }
+    }
+
+    private void publish(List<Trade> trades) {
+        if (!trades.isEmpty()) {
+            Trade last = trades.get(trades.size() - 1);
+            marks.publishTrade(last.getSymbol(), last.getPrice());
+        }
+        for (Trade t : trades) {
+            executions.route(t);
+            for (Consumer<Trade> l : tradeListeners) l.accept(t);
+        }
+    }
+
+    private void resetMarks() {
+        Map<String, Double> m = new HashMap<>(), t = new HashMap<>();
+        stocks.forEach((sym, st) -> m.put(sym, st.getMarkPrice()));
+        books.forEach((sym, b) -> t.put(sym, b.getLastTradePrice()));
+        marks.reset(new ArrayList<>(stocks.keySet()), m, t);
+    }
+
+    private void fireLevelChange(String symbol, Side side, double price, long qty, int orders) {
+        for (BookListener l : bookListeners) l.onLevelChange(symbol, side, price, qty, orders);
+    }
+
+    private void firePriceTick(String symbol, Double price) {
+        for (BiConsumer<String, Double> l : priceListeners) l.accept(symbol, price);
+    }
+
     /** Synchronously submit an order and publish any produced trades to listeners. */
     public List<Trade> submit(Order o) {
+        List<Trade> trades = new ArrayList<>();
+        submit(o, trades);
+        return trades;
+    }
+
+    /**
+     * Like {@link #submit(Order)}, appending the trades to {@code trades}. Returns true if part of the
+     * order is still working (resting, queued for an auction uncross, or a dormant stop); false means
+     * whatever did not fill was dropped.
+     */
+    public boolean submit(Order o, List<Trade> trades) {
         MatchingEngine me = engines.get(o.getSymbol());
         if (me == null) throw new IllegalArgumentException("Unknown symbol: " + o.getSymbol());
-        List<Trade> trades = me.match(o);
-        if (!trades.isEmpty()) {
-            for (Trade t : trades) {
-                for (Consumer<Trade> l : tradeListeners) l.accept(t);
+        int before = trades.size();
+        boolean working = me.match(o, trades);
+        publish(before == 0 ? trades : trades.subList(before, trades.size()));
+        return working;
+    }
+
+    /**
+     * Replaces the trader's quotes on every symbol of the mass quote (see {@link MatchingEngine#quote}).
+     * Each book is locked once and goes from the old ladder to the new one in a single step; symbols are
+     * applied one after another, not as one cross-symbol transaction. Quotes never trade on entry, so
+     * nothing is published here; later fills against them arrive as execution reports. Quote slots are
+     * not part of snapshots: restored quotes rest as ordinary orders.
+     */
+    public List<QuoteAck> massQuote(MassQuote quote) {
+        List<MassQuote.Ladder> ladders = quote.getLadders();
+        MatchingEngine[] targets = new MatchingEngine[ladders.size()];
+        for (int i = 0; i < targets.length; i++) { // resolve every symbol before touching any book
+            targets[i] = engines.get(ladders.get(i).getSymbol());
+            if (targets[i] == null) throw new IllegalArgumentException("Unknown symbol: " + ladders.get(i).getSymbol());
+        }
+        List<QuoteAck> acks = new ArrayList<>(quote.quoteCount());
+        for (int i = 0; i < targets.length; i++) targets[i].quote(quote.getTraderId(), ladders.get(i), acks);
+        return acks;
+    }
+
+    /**
+     * Writes companies, marks, resting orders (in priority order), accounts and id sequences to a
+     * versioned binary file. Each book is copied under its own lock; for a fully consistent image
+     * take the snapshot while no orders are being submitted.
+     */
+    public void snapshot(Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            writeSnapshot(tmp);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(tmp); // never leave a partial image behind
+            } catch (IOException cleanup) {
+                e.addSuppressed(cleanup);
             }
+            throw e;
         }
-        return trades;
+    }
+
+    private void writeSnapshot(Path tmp) throws IOException {
+        try (SnapshotWriter out = new SnapshotWriter(FileChannel.open(tmp,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))) {
+            out.putInt(SNAPSHOT_MAGIC);
+            out.putShort(SNAPSHOT_VERSION);
+            out.putLong(Order.peekNextId());
+            out.putLong(Trade.peekNextId());
+
+            List<String> syms = new ArrayList<>(companies.keySet());
+            Collections.sort(syms);
+            out.putInt(syms.size());
+            for (String sym : syms) writeSymbol(out, sym);
+
+            List<String> ids = new ArrayList<>(accounts.keySet());
+            Collections.sort(ids);
+            out.putInt(ids.size());
+            for (String id : ids) {
+                Account a = accounts.get(id);
+                Map<String, Long> pos;
+                double cash;
+                synchronized (a) {
+                    cash = a.getCash();
+                    pos = a.positionsSnapshot();
+                }
+                out.putInterned(id);
+                out.putDouble(a.getInitialCash());
+                out.putDouble(cash);
+                out.putInt(pos.size());
+                for (Map.Entry<String, Long> e : pos.entrySet()) {
+                    out.putString(e.getKey());
+                    out.putLong(e.getValue());
+                }
+            }
+            out.putInt(SNAPSHOT_MAGIC);
+        }
+    }
+
+    /**
+     * Loads a file written by {@link #snapshot(Path)} into this market, which must be empty and not yet started.
+     * Restored orders keep their ids and relative priority and rank ahead of anything submitted afterwards.
+     * The whole file is decoded before anything is installed, so a failed restore leaves the market empty.
+     */
+    public void restore(Path file) throws IOException {
+        if (!companies.isEmpty() || !accounts.isEmpty()) {
+            throw new IllegalStateException("restore() requires an empty market");
+        }
+        try (SnapshotReader in = new SnapshotReader(FileChannel.open(file, StandardOpenOption.READ))) {
+            if (in.getInt() != SNAPSHOT_MAGIC) throw new IOException("Not a market snapshot: " + file);
+            short version = in.getShort();
+            if (version < 1 || version > SNAPSHOT_VERSION) throw new IOException("Unsupported snapshot version: " + version);
+            long nextOrderId = in.getLong();
+            long nextTradeId = in.getLong();
+
+            int companyCount = in.getInt();
+            List<Listing> listings = new ArrayList<>(companyCount);
+            Set<String> seen = new HashSet<>();
+            for (int i = 0; i < companyCount; i++) {
+                Listing l = readSymbol(in, version);
+                if (!seen.add(l.company.getTicker())) throw new IOException("Duplicate symbol in snapshot: " + l.company.getTicker());
+                listings.add(l);
+            }
+
+            Map<String, Account> restored = new HashMap<>();
+            int accountCount = in.getInt();
+            for (int i = 0; i < accountCount; i++) {
+                String id = in.getInterned();
+                double initialCash = in.getDouble();
+                double cash = in.getDouble();
+                int n = in.getInt();
+                Map<String, Long> pos = new HashMap<>(n * 2);
+                for (int j = 0; j < n; j++) pos.put(in.getString(), in.getLong());
+                restored.put(id, new Account(initialCash, cash, pos));
+            }
+            if (in.getInt() != SNAPSHOT_MAGIC) throw new IOException("Corrupt snapshot trailer: " + file);
+
+            for (Listing l : listings) {
+                install(l);
+                phase = l.engine.phase(); // all books share the market phase when the snapshot is taken
+            }
+            accounts.putAll(restored);
+            resetMarks(); // picks up the restored marks and last trades
+
+            Order.advanceIdSequence(nextOrderId);
+            Trade.advanceIdSequence(nextTradeId);
+        }
+    }
+
+    /**
+     * Removes a symbol from this market and returns its company, mark and resting orders in snapshot
+     * encoding, for hand-over to another market via {@link #importSymbol(byte[])}.
+     */
+    public byte[] exportSymbol(String symbol) throws IOException {
+        if (!companies.containsKey(symbol)) throw new IllegalArgumentException("Unknown symbol: " + symbol);
+        MatchingEngine me = engines.remove(symbol); // stop accepting orders before the book is copied
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (SnapshotWriter out = new SnapshotWriter(Channels.newChannel(bytes))) {
+            out.putInt(SNAPSHOT_MAGIC);
+            out.putShort(SNAPSHOT_VERSION);
+            writeSymbol(out, symbol);
+        } catch (IOException | RuntimeException e) {
+            if (me != null) engines.put(symbol, me); // nothing has left this market: keep trading the symbol
+            throw e;
+        }
+        books.remove(symbol);
+        stocks.remove(symbol);
+        companies.remove(symbol);
+        resetMarks();
+        return bytes.toByteArray();
+    }
+
+    /** Lists a symbol exported by {@link #exportSymbol(String)}, including its resting orders. */
+    public void importSymbol(byte[] data) throws IOException {
+        try (SnapshotReader in = new SnapshotReader(Channels.newChannel(new ByteArrayInputStream(data)))) {
+            if (in.getInt() != SNAPSHOT_MAGIC) throw new IOException("Not a symbol export");
+            short version = in.getShort();
+            if (version < 1 || version > SNAPSHOT_VERSION) throw new IOException("Unsupported snapshot version: " + version);
+            Listing l = readSymbol(in, version);
+            if (companies.containsKey(l.company.getTicker())) throw new IllegalStateException("Symbol already listed: " + l.company.getTicker());
+            install(l);
+            resetMarks();
+        }
+    }
+
+    private void writeSymbol(SnapshotWriter out, String sym) throws IOException {
+        Company c = companies.get(sym);
+        out.putString(c.getName());
+        out.putString(c.getTicker());
+        out.putDouble(c.getInitialPrice());
+        out.putDouble(c.getAnnualVolatility());
+        out.putDouble(stocks.get(sym).getMarkPrice());
+
+        OrderBook book = books.get(sym);
+        List<Order> bids = new ArrayList<>(), asks = new ArrayList<>();
+        List<Order> stops, marketOrders = new ArrayList<>();
+        double lastTrade;
+        TradingPhase symbolPhase = engines.containsKey(sym) ? engines.get(sym).phase() : phase;
+        book.lock().lock();
+        try {
+            for (PriceLevel level : book.bids().values()) bids.addAll(level.orders());
+            for (PriceLevel level : book.asks().values()) asks.addAll(level.orders());
+            stops = book.stops().orders();
+            marketOrders.addAll(book.marketOrders(Side.BUY));
+            marketOrders.addAll(book.marketOrders(Side.SELL));
+            lastTrade = book.getLastTradePrice();
+        } finally {
+            book.lock().unlock();
+        }
+        writeOrders(out, bids);
+        writeOrders(out, asks);
+        out.putDouble(lastTrade);
+        writeStops(out, stops);
+        out.putShort((short) symbolPhase.ordinal());
+        out.putInt(marketOrders.size());
+        for (Order o : marketOrders) {
+            out.putLong(o.getId());
+            out.putInterned(o.getTraderId());
+            out.putShort((short) o.getSide().ordinal());
+            out.putLong(o.getQuantity());
+        }
+    }
+
+    /** One symbol decoded from a snapshot, not yet visible to the market. */
+    private static final class Listing {
+        final Company company;
+        final Stock stock;
+        final OrderBook book;
+        final MatchingEngine engine;
+
+        Listing(Company company, Stock stock, OrderBook book, MatchingEngine engine) {
+            this.company = company;
+            this.stock = stock;
+            this.book = book;
+            this.engine = engine;
+        }
+    }
+
+    /** Decodes one symbol into a detached book and engine; the market is untouched until {@link #install}. */
+    private Listing readSymbol(SnapshotReader in, short version) throws IOException {
+        Company c = new Company(in.getString(), in.getString(), in.getDouble(), in.getDouble());
+        Stock stock = new Stock(c.getTicker(), c.getInitialPrice());
+        stock.setMarkPrice(in.getDouble());
+        OrderBook book = new OrderBook(c.getTicker(), clockMillis.getAsLong());
+        MatchingEngine me = new MatchingEngine(book, this::fireLevelChange);
+        me.restorePhase(phase);
+        book.lock().lock();
+        try {
+            readOrders(in, version, c.getTicker(), Side.BUY, book);
+            readOrders(in, version, c.getTicker(), Side.SELL, book);
+            if (version >= 2) {
+                book.setLastTradePrice(in.getDouble());
+                readStops(in, version, c.getTicker(), book);
+            }
+            if (version >= 4) {
+                me.restorePhase(TradingPhase.values()[in.getShort()]);
+                int n = in.getInt();
+                long ts = System.nanoTime() - n - 1;
+                for (int i = 0; i < n; i++) {
+                    long id = in.getLong();
+                    String traderId = in.getInterned();
+                    Side side = Side.values()[in.getShort()];
+                    book.addMarket(Order.restoredMarket(id, traderId, c.getTicker(), side, in.getLong(), ts++));
+                }
+            }
+        } finally {
+            book.lock().unlock();
+        }
+        return new Listing(c, stock, book, me);
+    }
+
+    /** Makes a decoded symbol tradable; the caller refreshes the marks. */
+    private void install(Listing l) {
+        String sym = l.company.getTicker();
+        companies.put(sym, l.company);
+        stocks.put(sym, l.stock);
+        books.put(sym, l.book);
+        engines.put(sym, l.engine); // last: orders are accepted once the engine is visible
+    }
+
+    private static void writeOrders(SnapshotWriter out, List<Order> orders) throws IOException {
+        out.putInt(orders.size());
+        for (Order o : orders) {
+            out.putLong(o.getId());
+            out.putInterned(o.getTraderId());
+            out.putLong(o.getQuantity());
+            out.putDouble(o.getLimitPrice());
+            out.putLong(o.getExpireAtMillis()); // 0 = GTC
+        }
+    }
+
+    private static void readOrders(SnapshotReader in, short version, String symbol, Side side, OrderBook book) throws IOException {
+        int n = in.getInt();
+        // File order is priority order, so appending rebuilds each level's queue; timestamps are synthetic
+        // but monotonic and earlier than any order submitted after the restore.
+        long ts = System.nanoTime() - n - 1;
+        for (int i = 0; i < n; i++) {
+            long id = in.getLong();
+            String traderId = in.getInterned();
+            long qty = in.getLong();
+            double px = in.getDouble();
+            long expireAt = version >= 3 ? in.getLong() : 0;
+            Order o = Order.restoredLimit(id, traderId, symbol, side, qty, px, ts++);
+            book.add(expireAt == 0 ? o : o.goodTill(expireAt));
+        }
+    }
+
+    private static void writeStops(SnapshotWriter out, List<Order> stops) throws IOException {
+        out.putInt(stops.size());
+        for (Order o : stops) {
+            out.putLong(o.getId());
+            out.putInterned(o.getTraderId());
+            out.putShort((short) o.getSide().ordinal());
+            out.putLong(o.getQuantity());
+            out.putDouble(o.getStopPrice());
+            out.putDouble(o.getLimitPrice() == null ? Double.NaN : o.getLimitPrice()); // NaN = plain stop
+            out.putShort((short) o.getTimeInForce().ordinal());
+            out.putLong(o.getExpireAtMillis());
+        }
+    }
+
+    private static void readStops(SnapshotReader in, short version, String symbol, OrderBook book) throws IOException {
+        int n = in.getInt();
+        long ts = System.nanoTime() - n - 1; // file order is firing order per side
+        for (int i = 0; i < n; i++) {
+            long id = in.getLong();
+            String traderId = in.getInterned();
+            Side side = Side.values()[in.getShort()];
+            long qty = in.getLong();
+            double stopPx = in.getDouble();
+            double limitPx = in.getDouble();
+            TimeInForce tif = version >= 3 ? TimeInForce.values()[in.getShort()] : TimeInForce.GTC;
+            long expireAt = version >= 3 ? in.getLong() : 0;
+            Order o = Order.restoredStop(id, traderId, symbol, side, qty, stopPx, Double.isNaN(limitPx) ? null : limitPx, ts++);
+            book.addStop(tif == TimeInForce.GTD ? o.goodTill(expireAt) : o.withTimeInForce(tif));
+        }
+    }
+
+    /** Cancels a resting order or dormant stop owned by the trader; empty if it was unknown, not theirs or already done. */
+    public Optional<Order> cancel(String traderId, String symbol, long orderId) {
+        MatchingEngine me = engines.get(symbol);
+        if (me == null) throw new IllegalArgumentException("Unknown symbol: " + symbol);
+        return Optional.ofNullable(me.cancel(traderId, orderId));
     }
 
     @Override public void close() {
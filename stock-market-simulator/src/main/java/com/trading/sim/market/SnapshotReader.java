@@ -0,0 +1,62 @@
+package com.trading.sim.market;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Buffered reader counterpart of {@link SnapshotWriter}: large sequential channel reads,
+ * decoded in place from a direct buffer.
+ */
+final class SnapshotReader implements AutoCloseable {
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final List<String> interned = new ArrayList<>();
+
+    SnapshotReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        buf.limit(0);
+    }
+
+    int getInt() throws IOException { ensure(4); return buf.getInt(); }
+    short getShort() throws IOException { ensure(2); return buf.getShort(); }
+    long getLong() throws IOException { ensure(8); return buf.getLong(); }
+    double getDouble() throws IOException { ensure(8); return buf.getDouble(); }
+
+    String getString() throws IOException {
+        int len = getInt();
+        if (len < 0 || len > BUFFER_SIZE) throw new IOException("Corrupt string length: " + len);
+        ensure(len);
+        byte[] bytes = new byte[len];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    String getInterned() throws IOException {
+        int ref = getInt();
+        if (ref == interned.size()) {
+            String s = getString();
+            interned.add(s);
+            return s;
+        }
+        if (ref < 0 || ref > interned.size()) throw new IOException("Corrupt string reference: " + ref);
+        return interned.get(ref);
+    }
+
+    private void ensure(int n) throws IOException {
+        if (buf.remaining() >= n) return;
+        buf.compact();
+        while (buf.position() < n) {
+            if (channel.read(buf) < 0) throw new EOFException("Truncated snapshot");
+        }
+        buf.flip();
+    }
+
+    @Override public void close() throws IOException { channel.close(); }
+}
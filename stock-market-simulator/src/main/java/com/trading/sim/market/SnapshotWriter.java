@@ -0,0 +1,66 @@
+package com.trading.sim.market;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Buffered big-endian writer over a byte channel (normally a FileChannel) used by the snapshot format.
+ * Repeated strings (trader ids) can be written through an intern table: the first occurrence
+ * carries the text, later ones only a table reference.
+ */
+final class SnapshotWriter implements AutoCloseable {
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final Map<String, Integer> interned = new HashMap<>();
+
+    SnapshotWriter(WritableByteChannel channel) { this.channel = channel; }
+
+    void putInt(int v) throws IOException { ensure(4); buf.putInt(v); }
+    void putShort(short v) throws IOException { ensure(2); buf.putShort(v); }
+    void putLong(long v) throws IOException { ensure(8); buf.putLong(v); }
+    void putDouble(double v) throws IOException { ensure(8); buf.putDouble(v); }
+
+    void putString(String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        ensure(4 + bytes.length);
+        buf.putInt(bytes.length);
+        buf.put(bytes);
+    }
+
+    /** Writes a table reference; a reference equal to the current table size is followed by the text. */
+    void putInterned(String s) throws IOException {
+        Integer ref = interned.get(s);
+        if (ref != null) {
+            putInt(ref);
+        } else {
+            int next = interned.size();
+            interned.put(s, next);
+            putInt(next);
+            putString(s);
+        }
+    }
+
+    private void ensure(int n) throws IOException {
+        if (buf.remaining() < n) flush();
+        if (buf.remaining() < n) throw new IOException("Record too large for snapshot buffer: " + n);
+    }
+
+    void flush() throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) channel.write(buf);
+        buf.clear();
+    }
+
+    @Override public void close() throws IOException {
+        flush();
+        if (channel instanceof FileChannel) ((FileChannel) channel).force(false);
+        channel.close();
+    }
+}
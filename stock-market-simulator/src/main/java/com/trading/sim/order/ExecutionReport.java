@@ -0,0 +1,52 @@
+package com.trading.sim.order;
+
+/**
+ * One trader's view of a fill: which of its orders traded, on which side, and how much of that order
+ * is still open. Both counterparties of a trade get their own report.
+ */
+public final class ExecutionReport {
+    private final String traderId;
+    private final long orderId;
+    private final Trade trade;
+    private final Side side;
+    private final long leavesQuantity;
+    private final boolean aggressor;
+
+    public ExecutionReport(String traderId, long orderId, Trade trade, Side side, long leavesQuantity, boolean aggressor) {
+        this.traderId = traderId;
+        this.orderId = orderId;
+        this.trade = trade;
+        this.side = side;
+        this.leavesQuantity = leavesQuantity;
+        this.aggressor = aggressor;
+    }
+
+    /** The buyer's report for a trade. */
+    public static ExecutionReport buySide(Trade t) {
+        return new ExecutionReport(t.getBuyTraderId(), t.getBuyOrderId(), t, Side.BUY, t.getBuyLeaves(), t.getAggressor() == Side.BUY);
+    }
+
+    /** The seller's report for a trade. */
+    public static ExecutionReport sellSide(Trade t) {
+        return new ExecutionReport(t.getSellTraderId(), t.getSellOrderId(), t, Side.SELL, t.getSellLeaves(), t.getAggressor() == Side.SELL);
+    }
+
+    public String getTraderId() { return traderId; }
+    public long getOrderId() { return orderId; }
+    public Trade getTrade() { return trade; }
+    public String getSymbol() { return trade.getSymbol(); }
+    public Side getSide() { return side; }
+    public long getQuantity() { return trade.getQuantity(); }
+    public double getPrice() { return trade.getPrice(); }
+
+    /** Open quantity of the order right after this fill; a MARKET/IOC remainder is dropped afterwards without a report. */
+    public long getLeavesQuantity() { return leavesQuantity; }
+
+    /** True when this order took liquidity, false when it was resting (or crossed in an auction). */
+    public boolean isAggressor() { return aggressor; }
+
+    @Override public String toString() {
+        return "Exec{" + traderId + " order=" + orderId + " " + side + " " + trade.getQuantity() + "@" + trade.getPrice()
+        + " " + trade.getSymbol() + ", leaves=" + leavesQuantity + (aggressor ? ", aggressor" : ", passive") + '}';
+    }
+}
@@ -0,0 +1,93 @@
+package com.trading.sim.order;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A market maker's full two-sided quote on one or more symbols, applied by {@code Market.massQuote} as
+ * a replacement of everything the trader quoted there before.
+ *
+ * Each side is a ladder, best price first; level i is a quote slot. A quantity of 0 pulls that slot,
+ * and slots beyond the ladder are pulled. Arrays are taken as given, not copied, so a quoting loop can
+ * refill the same arrays every tick: fill them, build the MassQuote, and leave them alone until
+ * {@code massQuote} returns.
+ */
+public final class MassQuote {
+    /** One symbol's bid and ask ladders. */
+    public static final class Ladder {
+        private final String symbol;
+        private final double[] bidPrices;
+        private final long[] bidQuantities;
+        private final double[] askPrices;
+        private final long[] askQuantities;
+
+        private Ladder(String symbol, double[] bidPrices, long[] bidQuantities, double[] askPrices, long[] askQuantities) {
+            this.symbol = symbol;
+            this.bidPrices = bidPrices;
+            this.bidQuantities = bidQuantities;
+            this.askPrices = askPrices;
+            this.askQuantities = askQuantities;
+        }
+
+        public String getSymbol() { return symbol; }
+        public int levels(Side side) { return side == Side.BUY ? bidPrices.length : askPrices.length; }
+        public double price(Side side, int level) { return side == Side.BUY ? bidPrices[level] : askPrices[level]; }
+        public long quantity(Side side, int level) { return side == Side.BUY ? bidQuantities[level] : askQuantities[level]; }
+    }
+
+    private static final double[] NO_PRICES = {};
+    private static final long[] NO_QUANTITIES = {};
+
+    private final String traderId;
+    private final List<Ladder> ladders = new ArrayList<>(4);
+    private int quotes;
+
+    public MassQuote(String traderId) { this.traderId = traderId; }
+
+    /**
+     * Sets the ladders for {@code symbol}. Prices must be positive and strictly worse level by level
+     * (bids descending, asks ascending) over the non-zero quantities, and the bids must not cross the asks.
+     */
+    public MassQuote ladder(String symbol, double[] bidPrices, long[] bidQuantities, double[] askPrices, long[] askQuantities) {
+        if (bidPrices.length != bidQuantities.length || askPrices.length != askQuantities.length) {
+            throw new IllegalArgumentException("Price and quantity ladders differ in length: " + symbol);
+        }
+        double bestBid = checkSide(symbol, Side.BUY, bidPrices, bidQuantities);
+        double bestAsk = checkSide(symbol, Side.SELL, askPrices, askQuantities);
+        if (bestBid >= bestAsk) throw new IllegalArgumentException("Quote crosses itself: " + symbol + " " + bestBid + " / " + bestAsk);
+        for (Ladder l : ladders) {
+            if (l.symbol.equals(symbol)) throw new IllegalArgumentException("Symbol quoted twice: " + symbol);
+        }
+        ladders.add(new Ladder(symbol, bidPrices, bidQuantities, askPrices, askQuantities));
+        quotes += bidPrices.length + askPrices.length;
+        return this;
+    }
+
+    /** Pulls every quote the trader has on {@code symbol}. */
+    public MassQuote pull(String symbol) { return ladder(symbol, NO_PRICES, NO_QUANTITIES, NO_PRICES, NO_QUANTITIES); }
+
+    /** Best (first non-zero) price of the side, or the value that never crosses when the side is empty. */
+    private static double checkSide(String symbol, Side side, double[] prices, long[] quantities) {
+        double best = Double.NaN, prev = Double.NaN;
+        for (int i = 0; i < prices.length; i++) {
+            if (quantities[i] < 0) throw new IllegalArgumentException("Negative quote size: " + symbol + " " + side + " level " + i);
+            if (quantities[i] == 0) continue;
+            double px = prices[i];
+            if (!(px > 0) || Double.isInfinite(px)) throw new IllegalArgumentException("Invalid quote price: " + symbol + " " + px);
+            if (!Double.isNaN(prev) && (side == Side.BUY ? px >= prev : px <= prev)) {
+                throw new IllegalArgumentException("Quote levels out of order: " + symbol + " " + side + " level " + i);
+            }
+            if (Double.isNaN(best)) best = px;
+            prev = px;
+        }
+        if (Double.isNaN(best)) return side == Side.BUY ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        return best;
+    }
+
+    public String getTraderId() { return traderId; }
+    public List<Ladder> getLadders() { return Collections.unmodifiableList(ladders); }
+
+    /** Number of price levels across all ladders (zero-quantity levels included). */
+    public int quoteCount() { return quotes; }
+}
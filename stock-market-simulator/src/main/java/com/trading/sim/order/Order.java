@@ -14,11 +14,21 @@ public final class Order {
     private final Side side;
     private final OrderType type;
     private final long quantity; // shares
-    private final Double limitPrice; // null when MARKET
+    private final Double limitPrice; // null when MARKET or STOP
+    private final Double stopPrice; // null unless STOP or STOP_LIMIT
     private final long timestampNanos; // time priority
+    private final TimeInForce timeInForce;
+    private final long expireAtMillis; // wall-clock expiry for GTD, 0 otherwise
 
     private Order(long id, String traderId, String symbol, Side side, OrderType type,
-    long quantity, Double limitPrice, long timestampNanos) {
+    long quantity, Double limitPrice, Double stopPrice, long timestampNanos) {
+        this(id, traderId, symbol, side, type, quantity, limitPrice, stopPrice, timestampNanos,
+        type == OrderType.MARKET ? TimeInForce.IOC : TimeInForce.GTC, 0);
+    }
+
+    private Order(long id, String traderId, String symbol, Side side, OrderType type,
+    long quantity, Double limitPrice, Double stopPrice, long timestampNanos,
+    TimeInForce timeInForce, long expireAtMillis) {
         this.id = id;
         this.traderId = traderId;
         this.symbol = symbol;
@@ -26,19 +36,95 @@ public final class Order {
         this.type = type;
         this.quantity = quantity;
         this.limitPrice = limitPrice;
+        this.stopPrice = stopPrice;
         this.timestampNanos = timestampNanos;
+        this.timeInForce = timeInForce;
+        this.expireAtMillis = expireAtMillis;
     }
 
     public static Order market(String traderId, String symbol, Side side, long quantity) {
-        return new Order(SEQ.getAndIncrement(), traderId, symbol, side, OrderType.MARKET, quantity, null,
+        return new Order(SEQ.getAndIncrement(), traderId, symbol, side, OrderType.MARKET, quantity, null, null,
         System.nanoTime());
     }
 
     public static Order limit(String traderId, String symbol, Side side, long quantity, double price) {
-        return new Order(SEQ.getAndIncrement(), traderId, symbol, side, OrderType.LIMIT, quantity, price,
+        return new Order(SEQ.getAndIncrement(), traderId, symbol, side, OrderType.LIMIT, quantity, price, null,
+        System.nanoTime());
+    }
+
+    /** Becomes a MARKET order once the last trade is at or through {@code stopPrice}. */
+    public static Order stop(String traderId, String symbol, Side side, long quantity, double stopPrice) {
+        return new Order(SEQ.getAndIncrement(), traderId, symbol, side, OrderType.STOP, quantity, null, stopPrice,
+        System.nanoTime());
+    }
+
+    /** Becomes a LIMIT order at {@code limitPrice} once the last trade is at or through {@code stopPrice}. */
+    public static Order stopLimit(String traderId, String symbol, Side side, long quantity, double stopPrice, double limitPrice) {
+        return new Order(SEQ.getAndIncrement(), traderId, symbol, side, OrderType.STOP_LIMIT, quantity, limitPrice, stopPrice,
         System.nanoTime());
     }
 
+    /** Rebuilds a resting limit order with its original identity, e.g. when restoring a snapshot. */
+    public static Order restoredLimit(long id, String traderId, String symbol, Side side, long quantity, double price,
+    long timestampNanos) {
+        return new Order(id, traderId, symbol, side, OrderType.LIMIT, quantity, price, null, timestampNanos);
+    }
+
+    /** Rebuilds a MARKET order queued for an auction with its original identity. */
+    public static Order restoredMarket(long id, String traderId, String symbol, Side side, long quantity, long timestampNanos) {
+        return new Order(id, traderId, symbol, side, OrderType.MARKET, quantity, null, null, timestampNanos);
+    }
+
+    /** Rebuilds a dormant stop order with its original identity; {@code limitPrice} is null for a plain STOP. */
+    public static Order restoredStop(long id, String traderId, String symbol, Side side, long quantity, double stopPrice,
+    Double limitPrice, long timestampNanos) {
+        OrderType type = limitPrice == null ? OrderType.STOP : OrderType.STOP_LIMIT;
+        return new Order(id, traderId, symbol, side, type, quantity, limitPrice, stopPrice, timestampNanos);
+    }
+
+    /** Same order with IOC, FOK or GTC time-in-force (MARKET orders default to IOC, all others to GTC). */
+    public Order withTimeInForce(TimeInForce tif) {
+        if (tif == TimeInForce.GTD) throw new IllegalArgumentException("GTD needs an expiry: use goodTill()");
+        return new Order(id, traderId, symbol, side, type, quantity, limitPrice, stopPrice, timestampNanos, tif, 0);
+    }
+
+    /** Same order as GTD, expiring at the given wall-clock time (epoch millis). */
+    public Order goodTill(long expireAtMillis) {
+        if (expireAtMillis <= 0) throw new IllegalArgumentException("Invalid expiry: " + expireAtMillis);
+        return new Order(id, traderId, symbol, side, type, quantity, limitPrice, stopPrice, timestampNanos,
+        TimeInForce.GTD, expireAtMillis);
+    }
+
+    /** Same order (id and time priority) with a different open quantity, e.g. after a partial fill. */
+    public Order withQuantity(long newQuantity) {
+        return new Order(id, traderId, symbol, side, type, newQuantity, limitPrice, stopPrice, timestampNanos,
+        timeInForce, expireAtMillis);
+    }
+
+    /** Same id re-entered as a GTC limit at a new price and/or size, with time priority from {@code timestampNanos}. */
+    public Order requoted(double price, long newQuantity, long timestampNanos) {
+        return new Order(id, traderId, symbol, side, OrderType.LIMIT, newQuantity, price, null, timestampNanos);
+    }
+
+    public boolean isStop() { return type == OrderType.STOP || type == OrderType.STOP_LIMIT; }
+
+    /**
+     * The order a stop turns into when triggered: MARKET for STOP, LIMIT for STOP_LIMIT.
+     * Keeps the id; time priority starts at the trigger.
+     */
+    public Order triggered() {
+        if (!isStop()) throw new IllegalStateException("Not a stop order: " + this);
+        OrderType t = type == OrderType.STOP ? OrderType.MARKET : OrderType.LIMIT;
+        return new Order(id, traderId, symbol, side, t, quantity, limitPrice, null, System.nanoTime(),
+        timeInForce, expireAtMillis);
+    }
+
+    /** Next id that will be handed out. */
+    public static long peekNextId() { return SEQ.get(); }
+
+    /** Moves the id sequence forward so that it never reissues ids below {@code next}. */
+    public static void advanceIdSequence(long next) { SEQ.accumulateAndGet(next, Math::max); }
+
     public long getId() { return id; }
     public String getTraderId() { return traderId; }
     public String getSymbol() { return symbol; }
@@ -46,7 +132,10 @@ public final class Order {
     public OrderType getType() { return type; }
     public long getQuantity() { return quantity; }
     public Double getLimitPrice() { return limitPrice; }
+    public Double getStopPrice() { return stopPrice; }
     public long getTimestampNanos() { return timestampNanos; }
+    public TimeInForce getTimeInForce() { return timeInForce; }
+    public long getExpireAtMillis() { return expireAtMillis; }
 
     @Override public String toString() {
         return "Order{" +
@@ -57,6 +146,9 @@ public final class Order {
         ", type=" + type +
         ", qty=" + quantity +
         (limitPrice != null ? ", px=" + limitPrice : "") +
+        (stopPrice != null ? ", stop=" + stopPrice : "") +
+        (timeInForce != TimeInForce.GTC && type != OrderType.MARKET ? ", tif=" + timeInForce : "") +
+        (expireAtMillis != 0 ? ", expires=" + expireAtMillis : "") +
         '}';
     }
 }
\ No newline at end of file
@@ -1,3 +1,4 @@
 package com.trading.sim.order;
 
-public enum OrderType { MARKET, LIMIT }
\ No newline at end of file
+/** STOP and STOP_LIMIT orders stay dormant until the last trade price reaches their stop price. */
+public enum OrderType { MARKET, LIMIT, STOP, STOP_LIMIT }
@@ -0,0 +1,49 @@
+package com.trading.sim.order;
+
+/** Outcome of one level of a {@link MassQuote}, or of a quote it lifted. */
+public final class QuoteAck {
+    public enum Status {
+        /** No existing quote was free for this level; a new order rests. */
+        NEW,
+        /** An existing quote moved to this price; same order id, new time priority. */
+        REPLACED,
+        /** Same price, new size: a smaller size keeps time priority, a larger one goes to the back of the level. */
+        AMENDED,
+        /** Price and size already as quoted; nothing changed. */
+        UNCHANGED,
+        /** Quote lifted: no level of the new ladder took it. */
+        PULLED,
+        /** Would have crossed the opposite side in continuous trading; nothing rests at this level. */
+        REJECTED
+    }
+
+    private final String symbol;
+    private final Side side;
+    private final int level;
+    private final long orderId; // 0 when no order is left in the slot
+    private final double price;
+    private final long quantity;
+    private final Status status;
+
+    public QuoteAck(String symbol, Side side, int level, long orderId, double price, long quantity, Status status) {
+        this.symbol = symbol;
+        this.side = side;
+        this.level = level;
+        this.orderId = orderId;
+        this.price = price;
+        this.quantity = quantity;
+        this.status = status;
+    }
+
+    public String getSymbol() { return symbol; }
+    public Side getSide() { return side; }
+    public int getLevel() { return level; }
+    public long getOrderId() { return orderId; }
+    public double getPrice() { return price; }
+    public long getQuantity() { return quantity; }
+    public Status getStatus() { return status; }
+
+    @Override public String toString() {
+        return "QuoteAck{" + symbol + ' ' + side + '[' + level + "] " + status + " id=" + orderId + ' ' + quantity + '@' + price + '}';
+    }
+}
@@ -1,3 +1,7 @@
 package com.trading.sim.order;
 
-public enum Side { BUY, SELL }
\ No newline at end of file
+public enum Side {
+    BUY, SELL;
+
+    public Side opposite() { return this == BUY ? SELL : BUY; }
+}
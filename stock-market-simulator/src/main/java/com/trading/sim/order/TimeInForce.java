@@ -0,0 +1,8 @@
+package com.trading.sim.order;
+
+/**
+ * How long an order may stay open. GTC rests until filled or cancelled; IOC fills what it can and
+ * cancels the rest; FOK fills completely at once or not at all; GTD rests until its expiry time.
+ * MARKET orders never rest, so for them GTC and GTD behave like IOC.
+ */
+public enum TimeInForce { GTC, IOC, FOK, GTD }
@@ -14,24 +14,55 @@ public final class Trade {
     private final double price;
     private final String buyTraderId;
     private final String sellTraderId;
+    private final long buyOrderId; // 0 when unknown
+    private final long sellOrderId; // 0 when unknown
+    private final long buyLeaves; // buy order's open quantity after this fill
+    private final long sellLeaves;
+    private final Side aggressor; // side of the incoming order; null for auction trades or when unknown
     private final long timestampNanos;
 
     public Trade(String symbol, long quantity, double price, String buyTraderId, String sellTraderId) {
+        this(symbol, quantity, price, buyTraderId, sellTraderId, 0, 0);
+    }
+
+    public Trade(String symbol, long quantity, double price, String buyTraderId, String sellTraderId,
+    long buyOrderId, long sellOrderId) {
+        this(symbol, quantity, price, buyTraderId, sellTraderId, buyOrderId, sellOrderId, 0, 0, null);
+    }
+
+    public Trade(String symbol, long quantity, double price, String buyTraderId, String sellTraderId,
+    long buyOrderId, long sellOrderId, long buyLeaves, long sellLeaves, Side aggressor) {
         this.id = SEQ.getAndIncrement();
         this.symbol = symbol;
         this.quantity = quantity;
         this.price = price;
         this.buyTraderId = buyTraderId;
         this.sellTraderId = sellTraderId;
+        this.buyOrderId = buyOrderId;
+        this.sellOrderId = sellOrderId;
+        this.buyLeaves = buyLeaves;
+        this.sellLeaves = sellLeaves;
+        this.aggressor = aggressor;
         this.timestampNanos = System.nanoTime();
     }
 
+    /** Next id that will be handed out. */
+    public static long peekNextId() { return SEQ.get(); }
+
+    /** Moves the id sequence forward so that it never reissues ids below {@code next}. */
+    public static void advanceIdSequence(long next) { SEQ.accumulateAndGet(next, Math::max); }
+
     public long getId() { return id; }
     public String getSymbol() { return symbol; }
     public long getQuantity() { return quantity; }
     public double getPrice() { return price; }
     public String getBuyTraderId() { return buyTraderId; }
     public String getSellTraderId() { return sellTraderId; }
+    public long getBuyOrderId() { return buyOrderId; }
+    public long getSellOrderId() { return sellOrderId; }
+    public long getBuyLeaves() { return buyLeaves; }
+    public long getSellLeaves() { return sellLeaves; }
+    public Side getAggressor() { return aggressor; }
     public long getTimestampNanos() { return timestampNanos; }
 
     @Override public String toString() {
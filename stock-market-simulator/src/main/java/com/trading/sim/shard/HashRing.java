@@ -0,0 +1,62 @@
+package com.trading.sim.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Consistent-hash ring mapping symbols to shard ids. Each shard is placed at several virtual points
+ * so that adding or removing a shard only moves roughly 1/N of the symbols.
+ * Immutable: membership changes return a new ring.
+ */
+public final class HashRing {
+    private static final int VIRTUAL_NODES = 128;
+
+    private final TreeMap<Long, String> points;
+    private final Set<String> shards;
+
+    public HashRing() { this(new TreeMap<>(), Collections.emptySet()); }
+
+    private HashRing(TreeMap<Long, String> points, Set<String> shards) {
+        this.points = points;
+        this.shards = shards;
+    }
+
+    public HashRing with(String shardId) {
+        TreeMap<Long, String> p = new TreeMap<>(points);
+        for (int i = 0; i < VIRTUAL_NODES; i++) p.put(hash(shardId + "#" + i), shardId);
+        Set<String> s = new TreeSet<>(shards);
+        s.add(shardId);
+        return new HashRing(p, Collections.unmodifiableSet(s));
+    }
+
+    public HashRing without(String shardId) {
+        TreeMap<Long, String> p = new TreeMap<>(points);
+        p.values().removeIf(shardId::equals);
+        Set<String> s = new TreeSet<>(shards);
+        s.remove(shardId);
+        return new HashRing(p, Collections.unmodifiableSet(s));
+    }
+
+    public Set<String> shards() { return shards; }
+
+    public String owner(String symbol) {
+        if (points.isEmpty()) throw new IllegalStateException("No shards in ring");
+        Map.Entry<Long, String> e = points.ceilingEntry(hash(symbol));
+        return (e != null ? e : points.firstEntry()).getValue();
+    }
+
+    /** FNV-1a over UTF-8 bytes followed by a 64-bit finalizer to spread short keys around the ring. */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= (b & 0xff);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,129 @@
+package com.trading.sim.shard;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Shared-memory transport for processes on the same host: the endpoint is a file path which both
+ * sides memory-map. The file holds a single request/response mailbox, so each shard file serves
+ * exactly one gateway.
+ *
+ * Layout: int state at 0, int payload length at 4, request sequence at 8, echoed response sequence at
+ * 16, payload from offset 64. The state word is accessed with volatile semantics and hands the payload
+ * back and forth; the sequence numbers make sure a caller only ever reads the reply to its own request.
+ */
+public class MappedFileShardTransport implements ShardTransport {
+    private static final int HEADER = 64;
+    private static final int CAPACITY = 32 << 20;
+    private static final int REQUEST_SEQ = 8;
+    private static final int RESPONSE_SEQ = 16;
+
+    private static final int IDLE = 0;
+    private static final int REQUEST = 1;
+    private static final int RESPONSE = 2;
+
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    private static final long CALL_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    @Override
+    public Closeable serve(String endpoint, Handler handler) throws IOException {
+        MappedByteBuffer buf = map(Paths.get(endpoint), true);
+        INT.setVolatile(buf, 0, IDLE);
+
+        Thread server = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                if (!await(buf, REQUEST, Long.MAX_VALUE)) break;
+                long seq = buf.getLong(REQUEST_SEQ);
+                try {
+                    write(buf, handler.handle(read(buf)));
+                } catch (RuntimeException e) { // includes a response too large for the mailbox
+                    write(buf, ShardProtocol.error(e));
+                }
+                buf.putLong(RESPONSE_SEQ, seq);
+                INT.setVolatile(buf, 0, RESPONSE);
+            }
+        }, "shard-shm-" + endpoint);
+        server.setDaemon(true);
+        server.start();
+        return server::interrupt;
+    }
+
+    @Override
+    public Channel connect(String endpoint) throws IOException {
+        Path file = Paths.get(endpoint);
+        if (!Files.exists(file)) throw new IOException("No shard serving at " + endpoint);
+        MappedByteBuffer buf = map(file, false);
+
+        return new Channel() {
+            private long seq = buf.getLong(REQUEST_SEQ);
+            private boolean pending; // a timed-out request the shard may still be working on
+
+            @Override public synchronized byte[] call(byte[] request) throws IOException {
+                if (pending && (int) INT.getVolatile(buf, 0) == REQUEST) {
+                    // the shard still owns the mailbox until it answers; its late reply is discarded
+                    if (!await(buf, RESPONSE, CALL_TIMEOUT_NANOS)) throw new IOException("Shard did not respond: " + endpoint);
+                }
+                pending = false;
+                write(buf, request);
+                buf.putLong(REQUEST_SEQ, ++seq);
+                INT.setVolatile(buf, 0, REQUEST);
+                if (!await(buf, RESPONSE, CALL_TIMEOUT_NANOS)) {
+                    pending = true;
+                    throw new IOException("Shard did not respond: " + endpoint);
+                }
+                long echoed = buf.getLong(RESPONSE_SEQ);
+                if (echoed != seq) throw new IOException("Reply " + echoed + " does not match request " + seq + ": " + endpoint);
+                byte[] response = read(buf);
+                INT.setVolatile(buf, 0, IDLE);
+                return response;
+            }
+
+            @Override public void close() { }
+        };
+    }
+
+    private static MappedByteBuffer map(Path file, boolean create) throws IOException {
+        StandardOpenOption[] opts = create
+                ? new StandardOpenOption[] { StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE }
+                : new StandardOpenOption[] { StandardOpenOption.READ, StandardOpenOption.WRITE };
+        try (FileChannel ch = FileChannel.open(file, opts)) {
+            return ch.map(FileChannel.MapMode.READ_WRITE, 0, HEADER + CAPACITY);
+        }
+    }
+
+    private static void write(MappedByteBuffer buf, byte[] payload) {
+        if (payload.length > CAPACITY) throw new IllegalArgumentException("Frame exceeds mailbox: " + payload.length);
+        buf.putInt(4, payload.length);
+        buf.put(HEADER, payload);
+    }
+
+    private static byte[] read(MappedByteBuffer buf) {
+        byte[] payload = new byte[buf.getInt(4)];
+        buf.get(HEADER, payload);
+        return payload;
+    }
+
+    /** Spins briefly, then backs off to short parks; returns false on timeout or interrupt. */
+    private static boolean await(MappedByteBuffer buf, int state, long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        int spins = 0;
+        while ((int) INT.getVolatile(buf, 0) != state) {
+            if (Thread.currentThread().isInterrupted()) return false;
+            if (timeoutNanos != Long.MAX_VALUE && System.nanoTime() - deadline > 0) return false;
+            if (spins++ < 10_000) Thread.onSpinWait();
+            else LockSupport.parkNanos(20_000);
+        }
+        return true;
+    }
+}
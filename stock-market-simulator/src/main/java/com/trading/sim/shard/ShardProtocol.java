@@ -0,0 +1,155 @@
+package com.trading.sim.shard;
+
+import com.trading.sim.model.Company;
+import com.trading.sim.order.Order;
+import com.trading.sim.order.OrderType;
+import com.trading.sim.order.Side;
+import com.trading.sim.order.TimeInForce;
+import com.trading.sim.order.Trade;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Frame encoding for gateway/shard requests.
+ * Request: op byte followed by the op's fields. Response: status byte, then either the result or an error message.
+ */
+final class ShardProtocol {
+    static final byte OP_LIST = 1;
+    static final byte OP_SUBMIT = 2;
+    static final byte OP_LAST_PRICE = 3;
+    static final byte OP_EXPORT = 4;
+    static final byte OP_IMPORT = 5;
+    static final byte OP_SET_PHASE = 6;
+
+    static final byte STATUS_OK = 0;
+    static final byte STATUS_BAD_REQUEST = 1;
+    static final byte STATUS_ERROR = 2;
+
+    private ShardProtocol() { }
+
+    /** Small builder around a DataOutputStream; IOExceptions cannot occur on the in-memory stream. */
+    static final class Writer {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        private final DataOutputStream out = new DataOutputStream(bytes);
+
+        Writer(byte lead) { put(() -> out.writeByte(lead)); }
+
+        Writer str(String s) { put(() -> out.writeUTF(s)); return this; }
+        Writer i64(long v) { put(() -> out.writeLong(v)); return this; }
+        Writer f64(double v) { put(() -> out.writeDouble(v)); return this; }
+        Writer i32(int v) { put(() -> out.writeInt(v)); return this; }
+        Writer blob(byte[] b) { put(() -> { out.writeInt(b.length); out.write(b); }); return this; }
+
+        Writer company(Company c) {
+            return str(c.getName()).str(c.getTicker()).f64(c.getInitialPrice()).f64(c.getAnnualVolatility());
+        }
+
+        Writer order(Order o) {
+            i64(o.getId()).str(o.getTraderId()).str(o.getSymbol()).i32(o.getSide().ordinal()).i32(o.getType().ordinal()).i64(o.getQuantity());
+            f64(o.getLimitPrice() == null ? Double.NaN : o.getLimitPrice());
+            f64(o.isStop() ? o.getStopPrice() : Double.NaN);
+            return i32(o.getTimeInForce().ordinal()).i64(o.getExpireAtMillis());
+        }
+
+        Writer trades(List<Trade> trades) {
+            i32(trades.size());
+            for (Trade t : trades) {
+                str(t.getSymbol()).i64(t.getQuantity()).f64(t.getPrice()).str(t.getBuyTraderId()).str(t.getSellTraderId());
+                i64(t.getBuyOrderId()).i64(t.getSellOrderId()).i64(t.getBuyLeaves()).i64(t.getSellLeaves());
+                i32(t.getAggressor() == null ? -1 : t.getAggressor().ordinal());
+            }
+            return this;
+        }
+
+        byte[] toBytes() { return bytes.toByteArray(); }
+
+        private interface Io { void run() throws IOException; }
+
+        private void put(Io io) {
+            try {
+                io.run();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    static final class Reader {
+        private final DataInputStream in;
+
+        Reader(byte[] frame) { this.in = new DataInputStream(new ByteArrayInputStream(frame)); }
+
+        byte lead() throws IOException { return in.readByte(); }
+        String str() throws IOException { return in.readUTF(); }
+        long i64() throws IOException { return in.readLong(); }
+        double f64() throws IOException { return in.readDouble(); }
+        int i32() throws IOException { return in.readInt(); }
+
+        byte[] blob() throws IOException {
+            byte[] b = new byte[in.readInt()];
+            in.readFully(b);
+            return b;
+        }
+
+        Company company() throws IOException { return new Company(str(), str(), f64(), f64()); }
+
+        /**
+         * Rebuilds the order on the receiving side under the gateway's id, so the order ids in the trades
+         * that come back are the gateway's; the shard assigns its own timestamp.
+         */
+        Order order() throws IOException {
+            long id = i64();
+            String trader = str(), sym = str();
+            Side side = Side.values()[i32()];
+            OrderType type = OrderType.values()[i32()];
+            long qty = i64();
+            double px = f64();
+            double stopPx = f64();
+            TimeInForce tif = TimeInForce.values()[i32()];
+            long expireAt = i64();
+            long now = System.nanoTime();
+            Order o;
+            switch (type) {
+                case MARKET: o = Order.restoredMarket(id, trader, sym, side, qty, now); break;
+                case STOP: o = Order.restoredStop(id, trader, sym, side, qty, stopPx, null, now); break;
+                case STOP_LIMIT: o = Order.restoredStop(id, trader, sym, side, qty, stopPx, px, now); break;
+                default: o = Order.restoredLimit(id, trader, sym, side, qty, px, now);
+            }
+            return tif == TimeInForce.GTD ? o.goodTill(expireAt) : o.withTimeInForce(tif);
+        }
+
+        List<Trade> trades() throws IOException {
+            int n = i32();
+            List<Trade> out = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                String sym = str();
+                long qty = i64();
+                double px = f64();
+                String buyer = str(), seller = str();
+                long buyId = i64(), sellId = i64(), buyLeaves = i64(), sellLeaves = i64();
+                int aggressor = i32();
+                // trade ids are the gateway's own: each shard numbers its trades independently
+                out.add(new Trade(sym, qty, px, buyer, seller, buyId, sellId, buyLeaves, sellLeaves,
+                        aggressor < 0 ? null : Side.values()[aggressor]));
+            }
+            return out;
+        }
+    }
+
+    static byte[] error(RuntimeException e) {
+        byte status = e instanceof IllegalArgumentException ? STATUS_BAD_REQUEST : STATUS_ERROR;
+        return new Writer(status).str(String.valueOf(e.getMessage())).toBytes();
+    }
+
+    /** Opens a response, turning an error status back into an exception. */
+    static Reader response(byte[] frame, String shardId) throws IOException {
+        Reader r = new Reader(frame);
+        byte status = r.lead();
+        if (status == STATUS_OK) return r;
+        String msg = r.str();
+        if (status == STATUS_BAD_REQUEST) throw new IllegalArgumentException(msg);
+        throw new IllegalStateException("Shard " + shardId + " failed: " + msg);
+    }
+}
@@ -0,0 +1,97 @@
+package com.trading.sim.shard;
+
+import com.trading.sim.engine.AuctionResult;
+import com.trading.sim.engine.TradingPhase;
+import com.trading.sim.market.Market;
+import com.trading.sim.order.Trade;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * One engine shard: a regular {@link Market} owning a subset of symbols, answering gateway
+ * requests over a {@link ShardTransport}. Trades only happen inside a request (a submit, or a phase
+ * change uncrossing the auction books) and go back in its response, so the gateway sees all of them.
+ *
+ * Usage: --transport tcp|shm --endpoint 127.0.0.1:7001 (or a file path for shm) [--seed 42]
+ */
+public class ShardServer implements AutoCloseable {
+    private final Market market;
+    private final Closeable server;
+
+    public ShardServer(ShardTransport transport, String endpoint, Random rng) throws IOException {
+        this.market = new Market(rng);
+        this.market.start();
+        this.server = transport.serve(endpoint, this::handle);
+    }
+
+    public Market market() { return market; }
+
+    byte[] handle(byte[] request) {
+        try {
+            ShardProtocol.Reader in = new ShardProtocol.Reader(request);
+            ShardProtocol.Writer ok = new ShardProtocol.Writer(ShardProtocol.STATUS_OK);
+            switch (in.lead()) {
+                case ShardProtocol.OP_SUBMIT:
+                    return ok.trades(market.submit(in.order())).toBytes();
+                case ShardProtocol.OP_LIST:
+                    market.listCompany(in.company());
+                    return ok.toBytes();
+                case ShardProtocol.OP_LAST_PRICE:
+                    String sym = in.str();
+                    if (market.book(sym) == null) throw new IllegalArgumentException("Unknown symbol: " + sym);
+                    return ok.f64(market.lastPrice(sym)).toBytes();
+                case ShardProtocol.OP_EXPORT:
+                    return ok.blob(market.exportSymbol(in.str())).toBytes();
+                case ShardProtocol.OP_IMPORT:
+                    market.importSymbol(in.blob());
+                    return ok.toBytes();
+                case ShardProtocol.OP_SET_PHASE:
+                    List<Trade> uncrossed = new ArrayList<>();
+                    for (AuctionResult r : market.setPhase(TradingPhase.values()[in.i32()])) uncrossed.addAll(r.getTrades());
+                    return ok.trades(uncrossed).toBytes();
+                default:
+                    throw new IllegalArgumentException("Unknown op");
+            }
+        } catch (IOException e) {
+            return ShardProtocol.error(new UncheckedIOException(e));
+        } catch (RuntimeException e) {
+            return ShardProtocol.error(e);
+        }
+    }
+
+    @Override public void close() throws IOException {
+        server.close();
+        market.close();
+    }
+
+    public static void main(String[] args) throws Exception {
+        String transport = "tcp", endpoint = null;
+        long seed = 42;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--transport": transport = args[i + 1]; break;
+                case "--endpoint": endpoint = args[i + 1]; break;
+                case "--seed": seed = Long.parseLong(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (endpoint == null) throw new IllegalArgumentException("--endpoint is required");
+
+        ShardServer shard = new ShardServer(ShardTransport.forName(transport), endpoint, new Random(seed));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                shard.close();
+            } catch (IOException e) {
+                System.err.println("[SHARD] close failed: " + e.getMessage());
+            }
+        }));
+        System.out.printf("[SHARD] serving on %s (%s)%n", endpoint, transport);
+        new CountDownLatch(1).await(); // run until killed; the hook stops the transport and the market
+    }
+}
@@ -0,0 +1,35 @@
+package com.trading.sim.shard;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Pluggable request/response transport between the gateway and engine shards.
+ * Frames are opaque byte arrays; encoding lives in {@link ShardProtocol}.
+ */
+public interface ShardTransport {
+
+    /** Server side: turns one request frame into one response frame. */
+    interface Handler {
+        byte[] handle(byte[] request);
+    }
+
+    /** Client side: a connection to one shard. Implementations serialize concurrent callers. */
+    interface Channel extends AutoCloseable {
+        byte[] call(byte[] request) throws IOException;
+        @Override void close() throws IOException;
+    }
+
+    /** Starts serving at the endpoint; closing the returned handle stops the server. */
+    Closeable serve(String endpoint, Handler handler) throws IOException;
+
+    Channel connect(String endpoint) throws IOException;
+
+    static ShardTransport forName(String name) {
+        switch (name) {
+            case "tcp": return new TcpShardTransport();
+            case "shm": return new MappedFileShardTransport();
+            default: throw new IllegalArgumentException("Unknown transport: " + name);
+        }
+    }
+}
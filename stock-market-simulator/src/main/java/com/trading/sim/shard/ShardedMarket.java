@@ -0,0 +1,222 @@
+package com.trading.sim.shard;
+
+import com.trading.sim.engine.TradingPhase;
+import com.trading.sim.model.Company;
+import com.trading.sim.order.Order;
+import com.trading.sim.order.Side;
+import com.trading.sim.order.Trade;
+import com.trading.sim.trader.Account;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Gateway over several engine shards. Symbols are placed on shards with a consistent-hash
+ * {@link HashRing}; submits are routed to the owning shard, phase changes go to every shard, and the
+ * trades that come back (fills and auction uncrosses) are merged into one stream for local listeners
+ * and accounts.
+ *
+ * Adding or removing a shard moves only the symbols whose owner changes, book included, while the
+ * other shards keep running. Routing is paused (write lock) for the duration of a rebalance, which is
+ * all or nothing: if one symbol fails to move, the ones already moved are moved back and the old ring
+ * stays in force.
+ */
+public class ShardedMarket implements AutoCloseable {
+    private final ShardTransport transport;
+    private final Map<String, ShardTransport.Channel> channels = new ConcurrentHashMap<>();
+    private final Set<String> symbols = ConcurrentHashMap.newKeySet();
+    private final Map<String, Account> accounts = new ConcurrentHashMap<>();
+    private final List<Consumer<Trade>> tradeListeners = new CopyOnWriteArrayList<>();
+    private final ReentrantReadWriteLock routing = new ReentrantReadWriteLock();
+    private volatile HashRing ring = new HashRing();
+    private volatile TradingPhase phase = TradingPhase.CONTINUOUS;
+    // symbol -> shard holding it against the ring, left by a rollback that could not move it back
+    private final Map<String, String> pinned = new ConcurrentHashMap<>();
+
+    public ShardedMarket(ShardTransport transport) { this.transport = transport; }
+
+    /** Connects to a running shard and moves over the symbols it now owns. */
+    public void addShard(String shardId, String endpoint) throws IOException {
+        List<Trade> uncrossed;
+        routing.writeLock().lock();
+        try {
+            if (ring.shards().contains(shardId)) throw new IllegalArgumentException("Shard already added: " + shardId);
+            if (!channels.containsKey(shardId)) channels.put(shardId, transport.connect(endpoint)); // kept by a failed add if it still holds pinned books
+            try {
+                uncrossed = setPhase(shardId, phase); // a new shard joins in the current phase
+                rebalance(ring.with(shardId));
+            } catch (IOException | RuntimeException e) {
+                if (!pinned.containsValue(shardId)) channels.remove(shardId).close();
+                throw e;
+            }
+        } finally {
+            routing.writeLock().unlock();
+        }
+        dispatch(uncrossed);
+    }
+
+    /** Moves a shard's symbols to the remaining shards and disconnects from it. */
+    public void removeShard(String shardId) throws IOException {
+        routing.writeLock().lock();
+        try {
+            if (!ring.shards().contains(shardId)) throw new IllegalArgumentException("Unknown shard: " + shardId);
+            if (ring.shards().size() == 1) throw new IllegalArgumentException("Cannot remove the last shard: " + shardId);
+            rebalance(ring.without(shardId));
+            channels.remove(shardId).close();
+        } finally {
+            routing.writeLock().unlock();
+        }
+    }
+
+    private void rebalance(HashRing next) throws IOException {
+        if (!ring.shards().isEmpty()) {
+            List<String[]> moved = new ArrayList<>(); // {symbol, from, to}
+            try {
+                for (String sym : symbols) {
+                    String from = owner(sym);
+                    String to = next.owner(sym);
+                    if (from.equals(to)) continue;
+                    move(sym, from, to);
+                    moved.add(new String[] { sym, from, to });
+                }
+            } catch (IOException | RuntimeException e) {
+                for (int i = moved.size() - 1; i >= 0; i--) {
+                    String[] m = moved.get(i);
+                    try {
+                        move(m[0], m[2], m[1]);
+                    } catch (IOException | RuntimeException back) {
+                        pinned.put(m[0], m[2]); // route to where the book actually is
+                        e.addSuppressed(back);
+                    }
+                }
+                throw e;
+            }
+        }
+        ring = next;
+        pinned.clear(); // every symbol now sits with its owner on the new ring
+    }
+
+    private void move(String sym, String from, String to) throws IOException {
+        byte[] state = ShardProtocol.response(
+                channels.get(from).call(new ShardProtocol.Writer(ShardProtocol.OP_EXPORT).str(sym).toBytes()), from).blob();
+        try {
+            importTo(to, state);
+        } catch (IOException | RuntimeException e) {
+            try {
+                importTo(from, state); // hand the book back so the symbol survives a failed move
+            } catch (IOException | RuntimeException back) {
+                e.addSuppressed(back);
+            }
+            throw e;
+        }
+    }
+
+    private String owner(String symbol) {
+        String shardId = pinned.get(symbol);
+        return shardId != null ? shardId : ring.owner(symbol);
+    }
+
+    private void importTo(String shardId, byte[] state) throws IOException {
+        ShardProtocol.response(channels.get(shardId).call(new ShardProtocol.Writer(ShardProtocol.OP_IMPORT).blob(state).toBytes()), shardId);
+    }
+
+    public void listCompany(Company c) {
+        routing.readLock().lock();
+        try {
+            call(c.getTicker(), new ShardProtocol.Writer(ShardProtocol.OP_LIST).company(c));
+            symbols.add(c.getTicker());
+        } finally {
+            routing.readLock().unlock();
+        }
+    }
+
+    public double lastPrice(String symbol) {
+        routing.readLock().lock();
+        try {
+            return call(symbol, new ShardProtocol.Writer(ShardProtocol.OP_LAST_PRICE).str(symbol)).f64();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            routing.readLock().unlock();
+        }
+    }
+
+    public List<String> symbols() { return new ArrayList<>(symbols); }
+
+    public Account openAccount(String traderId, double startingCash) {
+        return accounts.computeIfAbsent(traderId, id -> new Account(startingCash));
+    }
+
+    public void addTradeListener(Consumer<Trade> listener) { tradeListeners.add(listener); }
+
+    public TradingPhase phase() { return phase; }
+
+    /**
+     * Moves every shard to {@code next}. Trades from books uncrossed on leaving an auction call come back
+     * in the shards' responses and reach accounts and listeners like any other fill; they are also returned.
+     */
+    public List<Trade> setPhase(TradingPhase next) {
+        List<Trade> uncrossed = new ArrayList<>();
+        routing.writeLock().lock();
+        try {
+            for (String shardId : channels.keySet()) uncrossed.addAll(setPhase(shardId, next));
+            phase = next;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            routing.writeLock().unlock();
+        }
+        dispatch(uncrossed);
+        return uncrossed;
+    }
+
+    private List<Trade> setPhase(String shardId, TradingPhase next) throws IOException {
+        byte[] request = new ShardProtocol.Writer(ShardProtocol.OP_SET_PHASE).i32(next.ordinal()).toBytes();
+        return ShardProtocol.response(channels.get(shardId).call(request), shardId).trades();
+    }
+
+    /** Routes the order to its shard; resulting trades update both counterparties' accounts and reach listeners. */
+    public List<Trade> submit(Order o) {
+        List<Trade> trades;
+        routing.readLock().lock();
+        try {
+            if (!symbols.contains(o.getSymbol())) throw new IllegalArgumentException("Unknown symbol: " + o.getSymbol());
+            trades = call(o.getSymbol(), new ShardProtocol.Writer(ShardProtocol.OP_SUBMIT).order(o)).trades();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            routing.readLock().unlock();
+        }
+        dispatch(trades);
+        return trades;
+    }
+
+    private void dispatch(List<Trade> trades) {
+        for (Trade t : trades) {
+            Account buyer = accounts.get(t.getBuyTraderId());
+            if (buyer != null) buyer.applyFill(t, Side.BUY);
+            Account seller = accounts.get(t.getSellTraderId());
+            if (seller != null) seller.applyFill(t, Side.SELL); // also when buyer == seller: a self-trade nets out
+            for (Consumer<Trade> l : tradeListeners) l.accept(t);
+        }
+    }
+
+    private ShardProtocol.Reader call(String symbol, ShardProtocol.Writer request) {
+        String shardId = owner(symbol);
+        try {
+            return ShardProtocol.response(channels.get(shardId).call(request.toBytes()), shardId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override public void close() throws IOException {
+        for (ShardTransport.Channel ch : channels.values()) ch.close();
+        channels.clear();
+    }
+}
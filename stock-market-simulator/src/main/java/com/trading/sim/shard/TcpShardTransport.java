@@ -0,0 +1,103 @@
+package com.trading.sim.shard;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Length-prefixed frames over plain TCP sockets; endpoints are {@code host:port}.
+ * The server runs one thread per gateway connection.
+ */
+public class TcpShardTransport implements ShardTransport {
+    private static final int MAX_FRAME = 64 << 20;
+
+    @Override
+    public Closeable serve(String endpoint, Handler handler) throws IOException {
+        ServerSocket server = new ServerSocket();
+        server.bind(address(endpoint));
+        List<Socket> clients = new CopyOnWriteArrayList<>();
+
+        Thread acceptor = new Thread(() -> {
+            while (!server.isClosed()) {
+                try {
+                    Socket s = server.accept();
+                    s.setTcpNoDelay(true);
+                    clients.add(s);
+                    Thread worker = new Thread(() -> serveConnection(s, handler, clients), "shard-conn-" + s.getPort());
+                    worker.setDaemon(true);
+                    worker.start();
+                } catch (IOException e) {
+                    if (!server.isClosed()) System.err.println("[SHARD] accept failed: " + e);
+                }
+            }
+        }, "shard-accept-" + endpoint);
+        acceptor.setDaemon(true);
+        acceptor.start();
+
+        return () -> {
+            server.close();
+            for (Socket s : clients) s.close();
+        };
+    }
+
+    private static void serveConnection(Socket s, Handler handler, List<Socket> clients) {
+        try (Socket sock = s;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(sock.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(sock.getOutputStream()))) {
+            while (true) {
+                byte[] response = handler.handle(readFrame(in));
+                out.writeInt(response.length);
+                out.write(response);
+                out.flush();
+            }
+        } catch (EOFException e) {
+            // gateway disconnected
+        } catch (IOException e) {
+            if (!s.isClosed()) System.err.println("[SHARD] connection failed: " + e);
+        } finally {
+            clients.remove(s);
+        }
+    }
+
+    @Override
+    public Channel connect(String endpoint) throws IOException {
+        Socket sock = new Socket();
+        sock.connect(address(endpoint));
+        sock.setTcpNoDelay(true);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(sock.getInputStream()));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(sock.getOutputStream()));
+
+        return new Channel() {
+            @Override public synchronized byte[] call(byte[] request) throws IOException {
+                try {
+                    out.writeInt(request.length);
+                    out.write(request);
+                    out.flush();
+                    return readFrame(in);
+                } catch (IOException e) {
+                    sock.close(); // the stream may be mid-frame: never pair a later request with this reply
+                    throw e;
+                }
+            }
+
+            @Override public void close() throws IOException { sock.close(); }
+        };
+    }
+
+    private static byte[] readFrame(DataInputStream in) throws IOException {
+        int len = in.readInt();
+        if (len < 0 || len > MAX_FRAME) throw new IOException("Bad frame length: " + len);
+        byte[] frame = new byte[len];
+        in.readFully(frame);
+        return frame;
+    }
+
+    private static InetSocketAddress address(String endpoint) {
+        int colon = endpoint.lastIndexOf(':');
+        if (colon < 0) throw new IllegalArgumentException("Expected host:port, got " + endpoint);
+        return new InetSocketAddress(endpoint.substring(0, colon), Integer.parseInt(endpoint.substring(colon + 1)));
+    }
+}
@@ -1,5 +1,8 @@
 package com.trading.sim.trader;
 
+import com.trading.sim.market.MarkSnapshot;
+import com.trading.sim.order.ExecutionReport;
+import com.trading.sim.order.Side;
 import com.trading.sim.order.Trade;
 
 import java.util.Collections;
@@ -21,6 +24,13 @@ public class Account {
         this.cash = startingCash;
     }
 
+    /** Rebuilds an account from persisted state. */
+    public Account(double initialCash, double cash, Map<String, Long> positions) {
+        this.initialCash = initialCash;
+        this.cash = cash;
+        this.positions.putAll(positions);
+    }
+
     public synchronized void applyFill(Trade t, String traderId) {
         long qty = t.getQuantity();
         double px = t.getPrice();
@@ -36,6 +46,20 @@ public class Account {
         }
     }
 
+    /** Applies one side of a trade; a self-trade books both sides, one call each. */
+    public synchronized void applyFill(Trade t, Side side) {
+        long signed = side == Side.BUY ? t.getQuantity() : -t.getQuantity();
+        cash -= signed * t.getPrice();
+        positions.merge(t.getSymbol(), signed, Long::sum);
+    }
+
+    /** Applies the trader's own side of a fill. */
+    public synchronized void applyFill(ExecutionReport r) {
+        long signed = r.getSide() == Side.BUY ? r.getQuantity() : -r.getQuantity();
+        cash -= signed * r.getPrice();
+        positions.merge(r.getSymbol(), signed, Long::sum);
+    }
+
     public synchronized double netLiq(Function<String, Double> lastPrice) {
         double value = cash;
         for (Map.Entry<String, Long> e : positions.entrySet()) {
@@ -44,10 +68,31 @@ public class Account {
         return value;
     }
 
+    /** Net liquidation value with every position priced in the same mark epoch. */
+    public synchronized double netLiq(MarkSnapshot epoch) {
+        double value = cash;
+        for (Map.Entry<String, Long> e : positions.entrySet()) {
+            if (e.getValue() != 0) value += e.getValue() * epoch.mark(e.getKey());
+        }
+        return value;
+    }
+
+    public synchronized double grossExposure(MarkSnapshot epoch) {
+        double gross = 0;
+        for (Map.Entry<String, Long> e : positions.entrySet()) {
+            if (e.getValue() != 0) gross += Math.abs(e.getValue() * epoch.mark(e.getKey()));
+        }
+        return gross;
+    }
+
+    public synchronized double unrealizedPnL(MarkSnapshot epoch) { return netLiq(epoch) - initialCash; }
+
     public synchronized double unrealizedPnL(Function<String, Double> lastPrice) {
         return netLiq(lastPrice) - initialCash;
     }
 
+    public double getInitialCash() { return initialCash; }
+
     public synchronized double getCash() { return cash; }
 
     public synchronized long getPosition(String symbol) {
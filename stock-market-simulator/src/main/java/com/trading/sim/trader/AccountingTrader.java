@@ -1,8 +1,9 @@
 package com.trading.sim.trader;
 
+import com.trading.sim.market.ExecutionReportRouter;
+import com.trading.sim.market.MarkSnapshot;
 import com.trading.sim.market.Market;
 import com.trading.sim.order.Order;
-import com.trading.sim.order.Trade;
 
 import java.util.List;
 import java.util.Random;
@@ -16,6 +17,7 @@ public class AccountingTrader implements Runnable {
     private final Market market;
     private final Random rng;
     private final Account account;
+    private final ExecutionReportRouter.Mailbox executions;
     private volatile boolean running = true;
     private long lastReportMs = System.currentTimeMillis();
 
@@ -24,7 +26,8 @@ public class AccountingTrader implements Runnable {
         this.strategy = strategy;
         this.market = market;
         this.rng = rng;
-        this.account = new Account(startingCash);
+        this.account = market.openAccount(id, startingCash);
+        this.executions = market.executionReports(id);
     }
 
     public String getId() { return id; }
@@ -37,21 +40,19 @@ public class AccountingTrader implements Runnable {
         while (running) {
             try {
                 List<Order> orders = strategy.generate(id, market.symbols(), market::lastPrice, rng);
-                for (Order o : orders) {
-                    List<Trade> fills = market.submit(o);
-                    if (!fills.isEmpty()) {
-                        for (Trade t : fills) {
-                            if (id.equals(t.getBuyTraderId()) || id.equals(t.getSellTraderId())) {
-                                account.applyFill(t, id);
-                            }
-                        }
-                        System.out.printf("[TRADER %s] Fills: %s%n", id, fills);
-                    }
-                }
+                for (Order o : orders) market.submit(o);
+                // own and passive fills (resting orders hit by others) both arrive here
+                executions.drain(r -> {
+                    account.applyFill(r);
+                    System.out.printf("[TRADER %s] Fill: %s%n", id, r);
+                });
 
                 long now = System.currentTimeMillis();
                 if (now - lastReportMs >= 1000) {
-                    double pnl = account.unrealizedPnL(market::lastPrice);
+                    double pnl;
+                    try (MarkSnapshot marks = market.marks().acquire()) {
+                        pnl = account.unrealizedPnL(marks);
+                    }
                     System.out.printf("[TRADER %s] Cash=%.2f PnL=%.2f Positions=%s%n",
                             id, account.getCash(), pnl, account.positionsSnapshot());
                     lastReportMs = now;
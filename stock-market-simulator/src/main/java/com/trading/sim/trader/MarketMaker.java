@@ -0,0 +1,73 @@
+package com.trading.sim.trader;
+
+import com.trading.sim.market.ExecutionReportRouter;
+import com.trading.sim.market.Market;
+import com.trading.sim.order.MassQuote;
+import com.trading.sim.order.QuoteAck;
+
+/**
+ * Quotes a symmetric ladder around each mark and requotes with one mass quote on every price tick,
+ * so stale quotes are replaced atomically instead of lingering next to new ones. Skews the ladder
+ * against its inventory. Runs on the price-engine thread; the ladder arrays are reused every tick.
+ */
+public class MarketMaker {
+    private final String id;
+    private final Market market;
+    private final Account account;
+    private final ExecutionReportRouter.Mailbox executions;
+    private final double halfSpread;  // fraction of the mark, e.g. 0.001
+    private final double levelStep;   // fraction of the mark between levels
+    private final long size;
+    private final long maxPosition;
+    private final double[] bidPx, askPx;
+    private final long[] bidQty, askQty;
+    private long rejected;
+
+    public MarketMaker(String id, Market market, double startingCash, int levels, long size, double halfSpread, double levelStep) {
+        this.id = id;
+        this.market = market;
+        this.account = market.openAccount(id, startingCash);
+        this.executions = market.executionReports(id);
+        this.halfSpread = halfSpread;
+        this.levelStep = levelStep;
+        this.size = size;
+        this.maxPosition = size * levels * 4;
+        this.bidPx = new double[levels];
+        this.askPx = new double[levels];
+        this.bidQty = new long[levels];
+        this.askQty = new long[levels];
+    }
+
+    /** Starts requoting on every mark tick of the market. */
+    public MarketMaker attach() {
+        market.addPriceListener(this::onPrice);
+        return this;
+    }
+
+    public String getId() { return id; }
+    public Account getAccount() { return account; }
+    public long getRejectedQuotes() { return rejected; }
+
+    private void onPrice(String symbol, double mark) {
+        executions.drain(account::applyFill);
+        long position = account.getPosition(symbol);
+        double skew = -halfSpread * position / maxPosition; // long -> quote lower to sell down, short -> higher
+        for (int i = 0; i < bidPx.length; i++) {
+            double offset = halfSpread + i * levelStep;
+            bidPx[i] = round2(mark * (1 + skew - offset));
+            askPx[i] = round2(mark * (1 + skew + offset));
+            bidQty[i] = position >= maxPosition ? 0 : size;
+            askQty[i] = position <= -maxPosition ? 0 : size;
+        }
+        for (int i = 1; i < bidPx.length; i++) { // rounding can collapse levels on cheap symbols
+            if (bidPx[i] >= bidPx[i - 1]) bidQty[i] = 0;
+            if (askPx[i] <= askPx[i - 1]) askQty[i] = 0;
+        }
+        if (bidPx[0] >= askPx[0]) askQty[0] = 0;
+        for (QuoteAck ack : market.massQuote(new MassQuote(id).ladder(symbol, bidPx, bidQty, askPx, askQty))) {
+            if (ack.getStatus() == QuoteAck.Status.REJECTED) rejected++;
+        }
+    }
+
+    private double round2(double v) { return Math.round(v * 100.0) / 100.0; }
+}
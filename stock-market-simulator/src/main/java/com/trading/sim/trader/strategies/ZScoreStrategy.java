@@ -0,0 +1,48 @@
+package com.trading.sim.trader.strategies;
+
+import com.trading.sim.indicators.IndicatorEngine;
+import com.trading.sim.indicators.RollingStats;
+import com.trading.sim.order.Order;
+import com.trading.sim.order.Side;
+import com.trading.sim.trader.Strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Mean reversion on a rolling z-score: sells when the price is stretched above its window mean,
+ * buys when it is stretched below, quoting back toward the mean. The statistics come from a shared
+ * {@link IndicatorEngine}, so any number of these traders reuse one computation per symbol.
+ */
+public class ZScoreStrategy implements Strategy {
+    private final IndicatorEngine indicators;
+    private final int window;
+    private final double entry;
+
+    /** @param entry absolute z-score beyond which an order is placed, e.g. 1.5 */
+    public ZScoreStrategy(IndicatorEngine indicators, int window, double entry) {
+        this.indicators = indicators;
+        this.window = window;
+        this.entry = entry;
+    }
+
+    @Override
+    public List<Order> generate(String traderId, List<String> symbols, Function<String, Double> lastPrice, Random rng) {
+        List<Order> out = new ArrayList<>();
+        for (String sym : symbols) {
+            RollingStats.Snapshot stats = indicators.stats(sym, window).snapshot(); // z and stdev from one update
+            double z = stats.zScore();
+            if (!(Math.abs(z) >= entry)) continue; // also skips NaN while the window fills
+
+            double p = lastPrice.apply(sym);
+            double px = p - 0.25 * z * stats.stdev(); // lean a quarter of the stretch back toward the mean
+            out.add(Order.limit(traderId, sym, z > 0 ? Side.SELL : Side.BUY, 5, round2(px)));
+            if (out.size() >= 2) break;
+        }
+        return out;
+    }
+
+    private double round2(double v) { return Math.round(v * 100.0) / 100.0; }
+}